@@ -0,0 +1,129 @@
+package com.rentacar;
+
+import com.rentacar.model.PooledSequence;
+import com.rentacar.model.PooledSequenceGenerator;
+import jakarta.persistence.*;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.Transaction;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.cfg.Configuration;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntFunction;
+
+/**
+ * Bulk inserts with IDENTITY ids (one INSERT round trip per row, batching disabled) against
+ * pooled sequence ids (one sequence call per allocation, INSERTs sent in JDBC batches),
+ * on plain H2 and on H2 in MySQL compatibility mode.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BulkInsertBenchmark {
+
+    private static final int BATCH_SIZE = 50;
+
+    @Param({"H2", "MySQL"})
+    public String mode;
+
+    @Param({"1000"})
+    public int rows;
+
+    private SessionFactory sessionFactory;
+
+    @Entity(name = "IdentityCar")
+    @Table(name = "identity_cars")
+    public static class IdentityCar {
+
+        @Id
+        @GeneratedValue(strategy = GenerationType.IDENTITY)
+        Long id;
+
+        String barcode;
+        Double dailyPrice;
+        String status;
+    }
+
+    @Entity(name = "PooledCar")
+    @Table(name = "pooled_cars")
+    public static class PooledCar {
+
+        @Id
+        @PooledSequence(name = "pooled_cars_seq")
+        Long id;
+
+        String barcode;
+        Double dailyPrice;
+        String status;
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        String url = "jdbc:h2:mem:bulk_" + mode + ";DB_CLOSE_DELAY=-1" + ("MySQL".equals(mode) ? ";MODE=MySQL" : "");
+        sessionFactory = new Configuration()
+                .addAnnotatedClass(IdentityCar.class)
+                .addAnnotatedClass(PooledCar.class)
+                .setProperty(AvailableSettings.JAKARTA_JDBC_URL, url)
+                .setProperty(AvailableSettings.JAKARTA_JDBC_USER, "sa")
+                .setProperty(AvailableSettings.JAKARTA_HBM2DDL_DATABASE_ACTION, "drop-and-create")
+                .setProperty(AvailableSettings.STATEMENT_BATCH_SIZE, String.valueOf(BATCH_SIZE))
+                .setProperty(AvailableSettings.ORDER_INSERTS, "true")
+                .setProperty(PooledSequenceGenerator.ALLOCATION_SIZE, String.valueOf(BATCH_SIZE))
+                .buildSessionFactory();
+    }
+
+    @Setup(Level.Iteration)
+    public void truncate() {
+        sessionFactory.inTransaction(session -> {
+            session.createMutationQuery("delete from IdentityCar").executeUpdate();
+            session.createMutationQuery("delete from PooledCar").executeUpdate();
+        });
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        sessionFactory.close();
+    }
+
+    @Benchmark
+    public void identityInsert() {
+        insert(i -> {
+            IdentityCar car = new IdentityCar();
+            car.barcode = "ID" + i;
+            car.dailyPrice = 1200.0;
+            car.status = "AVAILABLE";
+            return car;
+        });
+    }
+
+    @Benchmark
+    public void pooledSequenceInsert() {
+        insert(i -> {
+            PooledCar car = new PooledCar();
+            car.barcode = "PS" + i;
+            car.dailyPrice = 1200.0;
+            car.status = "AVAILABLE";
+            return car;
+        });
+    }
+
+    private void insert(IntFunction<Object> rowFactory) {
+        try (Session session = sessionFactory.openSession()) {
+            Transaction tx = session.beginTransaction();
+            for (int i = 0; i < rows; i++) {
+                session.persist(rowFactory.apply(i));
+                if ((i + 1) % BATCH_SIZE == 0) {
+                    session.flush();
+                    session.clear();
+                }
+            }
+            tx.commit();
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package com.rentacar;
+
+import com.rentacar.model.Car;
+import com.rentacar.model.Extra;
+import com.rentacar.model.Reservation;
+import com.rentacar.service.Money;
+import com.rentacar.service.PricingEngine;
+import com.rentacar.service.PricingRules;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PricingEngineBenchmark {
+
+    private PricingEngine engine;
+    private Reservation reservation;
+    private long pickupEpochSecond;
+    private long dailyMinor;
+    private long extrasMinor;
+
+    @Setup
+    public void setUp() {
+        engine = new PricingEngine(PricingRules.compile(12000, Map.of(7, 9000), Map.of("Mid-size", 11000)));
+
+        LocalDateTime pickup = LocalDateTime.of(2025, 1, 6, 10, 0);
+        pickupEpochSecond = pickup.toEpochSecond(ZoneOffset.UTC);
+        dailyMinor = Money.toMinor(1200.0);
+        extrasMinor = Money.toMinor(200.0) + Money.toMinor(150.0);
+
+        Car car = new Car();
+        car.setDailyPrice(1200.0);
+        reservation = new Reservation();
+        reservation.setCar(car);
+        reservation.setPickupDate(pickup);
+        reservation.setDropoffDate(pickup.plusDays(9));
+        reservation.setExtras(List.of(new Extra("GPS Navigation", 200.0), new Extra("Baby Seat", 150.0)));
+    }
+
+    @Benchmark
+    public long engineQuote() {
+        return engine.priceMinor(dailyMinor, "Mid-size", pickupEpochSecond, 9, extrasMinor);
+    }
+
+    @Benchmark
+    public Double legacyCalculateTotalPrice() {
+        return reservation.calculateTotalPrice();
+    }
+}
@@ -0,0 +1,132 @@
+package com.rentacar;
+
+import com.rentacar.dto.CarResponseDTO;
+import com.rentacar.dto.CarSearchRequestDTO;
+import com.rentacar.model.Car;
+import com.rentacar.model.Location;
+import com.rentacar.repository.CarRepository;
+import com.rentacar.repository.LocationRepository;
+import com.rentacar.service.CarService;
+import jakarta.persistence.EntityManager;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * getAllCars and the search endpoint's service call, as they ran before (managed entities in a
+ * read-write transaction, dirty-checked at commit) and as they run now (read-only transaction,
+ * read-only entities, projection for search). Run with the gc profiler for heap churn.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ReadPathBenchmark {
+
+    @Param({"2000"})
+    public int cars;
+
+    private ConfigurableApplicationContext context;
+    private CarService carService;
+    private EntityManager entityManager;
+    private TransactionTemplate readWrite;
+    private CarSearchRequestDTO search;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new SpringApplicationBuilder(CarRentalApplication.class)
+                .web(WebApplicationType.NONE)
+                // quiet, without the dev profile's SQL logging
+                .run("--spring.profiles.active=default",
+                        "--logging.level.root=WARN");
+
+        carService = context.getBean(CarService.class);
+        entityManager = context.getBean(EntityManager.class);
+        readWrite = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+
+        Location location = context.getBean(LocationRepository.class).save(new Location("BENCH", "Benchmark Depot"));
+        List<Car> fleet = new ArrayList<>(cars);
+        for (int i = 0; i < cars; i++) {
+            Car car = new Car();
+            car.setBarcode("BENCH" + i);
+            car.setLicensePlate("BN" + i);
+            car.setBrand(i % 2 == 0 ? "Toyota" : "Renault");
+            car.setModel(i % 2 == 0 ? "Corolla" : "Clio");
+            car.setNumberOfSeats(5);
+            car.setTransmissionType(i % 3 == 0 ? "Manual" : "Automatic");
+            car.setDailyPrice(800.0 + i % 400);
+            car.setCategory(i % 4 == 0 ? "SUV" : "Compact");
+            car.setLocation(location);
+            fleet.add(car);
+        }
+        context.getBean(CarRepository.class).saveAll(fleet);
+
+        search = new CarSearchRequestDTO();
+        search.setPickupLocationCode("BENCH");
+        search.setPickupDate(LocalDateTime.now().plusDays(10));
+        search.setDropoffDate(LocalDateTime.now().plusDays(13));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<Car> getAllCarsManaged() {
+        return readWrite.execute(status ->
+                entityManager.createQuery("SELECT c FROM Car c", Car.class).getResultList());
+    }
+
+    @Benchmark
+    public List<Car> getAllCarsReadOnly() {
+        return carService.getAllCars();
+    }
+
+    @Benchmark
+    public List<CarResponseDTO> searchManaged() {
+        return readWrite.execute(status -> {
+            List<Car> found = entityManager
+                    .createQuery("SELECT c FROM Car c WHERE " + CarRepository.AVAILABLE_CAR_FILTER, Car.class)
+                    .setParameter("pickupDate", search.getPickupDate())
+                    .setParameter("dropoffDate", search.getDropoffDate())
+                    .setParameter("locationCode", search.getPickupLocationCode())
+                    .setParameter("category", null)
+                    .setParameter("transmissionType", null)
+                    .setParameter("minSeats", null)
+                    .setParameter("minPrice", null)
+                    .setParameter("maxPrice", null)
+                    .getResultList();
+
+            List<CarResponseDTO> result = new ArrayList<>(found.size());
+            for (Car car : found) {
+                CarResponseDTO dto = new CarResponseDTO();
+                dto.setBarcode(car.getBarcode());
+                dto.setBrand(car.getBrand());
+                dto.setModel(car.getModel());
+                dto.setCategory(car.getCategory());
+                dto.setTransmissionType(car.getTransmissionType());
+                dto.setNumberOfSeats(car.getNumberOfSeats());
+                dto.setDailyPrice(car.getDailyPrice());
+                dto.setLocationName(car.getLocation().getName());
+                result.add(dto);
+            }
+            return result;
+        });
+    }
+
+    @Benchmark
+    public List<CarResponseDTO> searchProjection() {
+        return carService.searchAvailableCars(search);
+    }
+}
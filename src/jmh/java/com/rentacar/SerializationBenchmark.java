@@ -0,0 +1,91 @@
+package com.rentacar;
+
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.rentacar.dto.CarResponseDTO;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * A search result list written as JSON the way Spring's default converter did (writer resolved
+ * per call) against the prebuilt JSON and CBOR writers of HttpConfig. Payload sizes, plain and
+ * gzipped, are printed at setup; run with the gc profiler for bytes allocated per write.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SerializationBenchmark {
+
+    @Param({"20", "500"})
+    public int cars;
+
+    private List<CarResponseDTO> result;
+    private ObjectMapper jsonMapper;
+    private JavaType listType;
+    private ObjectWriter jsonWriter;
+    private ObjectWriter cborWriter;
+
+    @Setup
+    public void setUp() throws IOException {
+        result = new ArrayList<>(cars);
+        for (int i = 0; i < cars; i++) {
+            CarResponseDTO dto = new CarResponseDTO();
+            dto.setBarcode(String.format("C%08d", i));
+            dto.setBrand(i % 2 == 0 ? "Toyota" : "Renault");
+            dto.setModel(i % 2 == 0 ? "Corolla" : "Clio");
+            dto.setCategory(i % 4 == 0 ? "SUV" : "Compact");
+            dto.setTransmissionType(i % 3 == 0 ? "Manual" : "Automatic");
+            dto.setNumberOfSeats(5);
+            dto.setDailyPrice(800.0 + i % 400 + 0.5);
+            dto.setLocationName("Istanbul Airport");
+            result.add(dto);
+        }
+
+        // what Spring Boot configures for the JSON converter, and HttpConfig for CBOR
+        jsonMapper = Jackson2ObjectMapperBuilder.json().build();
+        ObjectMapper cborMapper = Jackson2ObjectMapperBuilder.json().factory(new CBORFactory()).build();
+        listType = jsonMapper.getTypeFactory().constructCollectionType(List.class, CarResponseDTO.class);
+        jsonWriter = jsonMapper.writerFor(listType);
+        cborWriter = cborMapper.writerFor(listType);
+
+        byte[] json = jsonWriter.writeValueAsBytes(result);
+        byte[] cbor = cborWriter.writeValueAsBytes(result);
+        System.out.printf("%n%d cars: JSON %d bytes (gzip %d), CBOR %d bytes (gzip %d)%n",
+                cars, json.length, gzipped(json), cbor.length, gzipped(cbor));
+    }
+
+    @Benchmark
+    public byte[] jsonPerCallWriter() throws IOException {
+        return jsonMapper.writer().forType(listType).writeValueAsBytes(result);
+    }
+
+    @Benchmark
+    public byte[] jsonPrebuiltWriter() throws IOException {
+        return jsonWriter.writeValueAsBytes(result);
+    }
+
+    @Benchmark
+    public byte[] cborPrebuiltWriter() throws IOException {
+        return cborWriter.writeValueAsBytes(result);
+    }
+
+    private static int gzipped(byte[] body) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(body);
+        }
+        return out.size();
+    }
+}
@@ -0,0 +1,161 @@
+package com.rentacar.service;
+
+import com.rentacar.CarRentalApplication;
+import com.rentacar.dto.CarResponseDTO;
+import com.rentacar.dto.CarSearchRequestDTO;
+import com.rentacar.dto.ReservationRequestDTO;
+import com.rentacar.dto.ReservationResponseDTO;
+import com.rentacar.model.Car;
+import com.rentacar.model.Extra;
+import com.rentacar.model.Location;
+import com.rentacar.model.Member;
+import com.rentacar.model.Reservation;
+import com.rentacar.model.ReservationStatus;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Search, booking and pricing hot paths against an embedded H2 filled by the datagen profile
+ * (SyntheticDataGenerator) at the scale given by the cars param, e.g.
+ *
+ *   gradle jmh -PjmhIncludes=HotPathBenchmark -PjmhCars=2000,20000
+ *
+ * Members and reservations scale with the fleet (10 and 20 per car). Results go to
+ * build/results/jmh/results.json, with the gc profiler's allocation rate per operation.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class HotPathBenchmark {
+
+    private static final LocalDate ANCHOR = LocalDate.of(2026, 1, 1);
+    private static final int FUTURE_DAYS = 90;
+
+    @Param({"2000"})
+    public int cars;
+
+    private ConfigurableApplicationContext context;
+    private CarService carService;
+    private ReservationService reservationService;
+
+    private CarSearchRequestDTO search;
+    private List<String> bookableBarcodes;
+    private long bookings;
+    private Reservation snapshotted;
+    private Reservation unpriced;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new SpringApplicationBuilder(CarRentalApplication.class)
+                .web(WebApplicationType.NONE)
+                // arguments, not default properties: they must win over the datagen profile's sizes
+                .run("--spring.profiles.active=datagen",
+                        "--logging.level.root=WARN",
+                        "--rentacar.datagen.anchor-date=" + ANCHOR,
+                        "--rentacar.datagen.future-days=" + FUTURE_DAYS,
+                        "--rentacar.datagen.cars=" + cars,
+                        "--rentacar.datagen.members=" + cars * 10,
+                        "--rentacar.datagen.reservations=" + cars * 20L);
+
+        carService = context.getBean(CarService.class);
+        reservationService = context.getBean(ReservationService.class);
+
+        // busiest location, in the middle of the future bookings
+        search = new CarSearchRequestDTO();
+        search.setPickupLocationCode("L0001");
+        search.setPickupDate(ANCHOR.atTime(10, 0).plusDays(30));
+        search.setDropoffDate(ANCHOR.atTime(10, 0).plusDays(33));
+
+        bookableBarcodes = context.getBean(JdbcTemplate.class).queryForList(
+                "SELECT barcode FROM cars WHERE status = 'AVAILABLE' ORDER BY id", String.class);
+
+        snapshotted = detachedReservation();
+        snapshotted.setTotalPriceMinor(482_000L);
+        unpriced = detachedReservation();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<CarResponseDTO> searchAvailableCars() {
+        return carService.searchAvailableCars(search);
+    }
+
+    // Each call books the next car for the next free 2-day slot past the generated timeline
+    @Benchmark
+    public ReservationResponseDTO makeReservation() {
+        long booking = bookings++;
+        String barcode = bookableBarcodes.get((int) (booking % bookableBarcodes.size()));
+        LocalDateTime pickup = ANCHOR.atTime(10, 0).plusDays(FUTURE_DAYS + 30 + booking / bookableBarcodes.size() * 3);
+
+        ReservationRequestDTO request = new ReservationRequestDTO();
+        request.setCarBarcode(barcode);
+        request.setMemberId(1 + booking % (cars * 10L));
+        request.setPickupLocationCode("L0001");
+        request.setDropoffLocationCode("L0001");
+        request.setPickupDateTime(pickup);
+        request.setDropoffDateTime(pickup.plusDays(2));
+        return reservationService.makeReservation(request);
+    }
+
+    @Benchmark
+    public String generateReservationNumber() {
+        return reservationService.generateReservationNumber();
+    }
+
+    @Benchmark
+    public Double calculateTotalPrice() {
+        return unpriced.calculateTotalPrice();
+    }
+
+    @Benchmark
+    public ReservationResponseDTO toResponseDTO() {
+        return reservationService.toResponseDTO(snapshotted);
+    }
+
+    // -------------------------
+    // FIXTURES
+    // -------------------------
+
+    private static Reservation detachedReservation() {
+        Location location = new Location("L0001", "Branch 1");
+        location.setId(1L);
+
+        Car car = new Car();
+        car.setId(1L);
+        car.setBarcode("C00000001");
+        car.setDailyPrice(1200.0);
+        car.setCategory("Compact");
+        car.setLocation(location);
+
+        Member member = new Member();
+        member.setId(1L);
+        member.setName("Deniz Öztürk");
+
+        Reservation reservation = new Reservation();
+        reservation.setReservationNumber("S000000001");
+        reservation.setCar(car);
+        reservation.setMember(member);
+        reservation.setPickupLocation(location);
+        reservation.setDropoffLocation(location);
+        reservation.setPickupDate(ANCHOR.atTime(10, 0));
+        reservation.setDropoffDate(ANCHOR.atTime(10, 0).plusDays(4));
+        reservation.setStatus(ReservationStatus.ACTIVE);
+        reservation.setExtras(List.of(new Extra("GPS Navigation", 200.0), new Extra("Baby Seat", 150.0)));
+        return reservation;
+    }
+}
@@ -0,0 +1,366 @@
+package com.rentacar;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.PrintStream;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.LongFunction;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Open-model HTTP load against a locally started instance of the boot jar (prod + datagen
+ * profiles). Every endpoint gets a fixed arrival rate; each request is sent from its own virtual
+ * thread at its scheduled time, and latency is measured from that scheduled time, so a slow server
+ * shows up as latency instead of quietly lowering the request rate (no coordinated omission).
+ *
+ *   gradle loadTest [-PloadRate=50] [-PloadDuration=60] [-PloadEndpoints=search,rented] [-PloadBudget=path]
+ *
+ * Prints p50/p99/p99.9 and throughput per endpoint, writes each histogram to build/loadtest and
+ * exits non-zero when an endpoint misses its budget (budget.properties). The budget also scales
+ * each endpoint's share of the rate, so no endpoint is offered more than its bulkhead can serve.
+ */
+public final class LoadTestHarness {
+
+    private static final LocalDate BOOKING_START = LocalDate.of(2030, 1, 1);
+    private static final int LOCATIONS = 50;
+    private static final long HIGHEST_LATENCY_MS = TimeUnit.MINUTES.toMillis(1);
+    // a request still unanswered after this counts as an error
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(30);
+
+    // statuses that are answers, not failures: an empty search is a 404. Bookings only expect 200:
+    // the service refuses RESERVED cars, which cars out on a generated rental are and every booking
+    // leaves its car, so each booking goes to its own bookable car and a 406 means a wrong refusal
+    private record Endpoint(String name, Set<Integer> expectedStatuses, LongFunction<HttpRequest> request,
+                            AtomicLong sequence) {
+
+        Endpoint(String name, Set<Integer> expectedStatuses, LongFunction<HttpRequest> request) {
+            this(name, expectedStatuses, request, new AtomicLong());
+        }
+    }
+
+    private static final class Result {
+
+        final Histogram latencyMicros = new ConcurrentHistogram(HIGHEST_LATENCY_MS * 1000, 3);
+        final AtomicLong sent = new AtomicLong();
+        final AtomicLong errors = new AtomicLong();
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = options(args);
+        Path appJar = Path.of(required(options, "app-jar"));
+        Path reportDir = Path.of(options.getOrDefault("report-dir", "build/loadtest"));
+        int rate = Integer.parseInt(options.getOrDefault("rate", "50"));
+        Duration warmup = Duration.ofSeconds(Long.parseLong(options.getOrDefault("warmup-seconds", "15")));
+        Duration duration = Duration.ofSeconds(Long.parseLong(options.getOrDefault("duration-seconds", "60")));
+        int cars = Integer.parseInt(options.getOrDefault("cars", "4000"));
+        Set<String> selected = Set.of(options.getOrDefault("endpoints", "search,reservations,rented").split(","));
+        Properties budget = new Properties();
+        try (InputStream in = Files.newInputStream(Path.of(required(options, "budget")))) {
+            budget.load(in);
+        }
+
+        int port = freePort();
+        int managementPort = freePort();
+        String base = "http://localhost:" + port;
+        Process app = startApplication(appJar, port, managementPort, cars);
+        boolean passed;
+        try (ExecutorService virtualThreads = Executors.newVirtualThreadPerTaskExecutor();
+             HttpClient client = HttpClient.newBuilder()
+                     .executor(virtualThreads)
+                     .connectTimeout(Duration.ofSeconds(5))
+                     .build()) {
+            awaitReady(client, "http://127.0.0.1:" + managementPort, app);
+            List<String> bookable = bookableCars(client, base);
+            List<Endpoint> endpoints = endpoints(base, cars, bookable).stream()
+                    .filter(endpoint -> selected.contains(endpoint.name()))
+                    .toList();
+
+            Map<String, Double> rates = offeredRates(endpoints, rate, budget);
+            double bookings = rates.getOrDefault("reservations", 0.0) * (warmup.toSeconds() + duration.toSeconds());
+            if (bookings > bookable.size()) {
+                throw new IllegalStateException(String.format("%.0f bookings but only %d cars to book; raise "
+                        + "-PloadCars or lower the reservations rate", bookings, bookable.size()));
+            }
+
+            System.out.printf("Warm-up: %d s at %s req/s%n", warmup.toSeconds(), rates);
+            drive(client, virtualThreads, endpoints, rates, warmup);
+
+            System.out.printf("Measuring: %d s at %s req/s%n", duration.toSeconds(), rates);
+            Map<String, Result> results = drive(client, virtualThreads, endpoints, rates, duration);
+
+            passed = report(results, rates, duration, budget, reportDir);
+            System.out.println(passed ? "Load test PASSED" : "Load test FAILED: budget exceeded");
+        } finally {
+            app.destroy();
+            if (!app.waitFor(30, TimeUnit.SECONDS)) {
+                app.destroyForcibly();
+            }
+        }
+        // only once the application is gone: exit skips finally blocks
+        if (!passed) {
+            System.exit(1);
+        }
+    }
+
+    // -------------------------
+    // LOAD
+    // -------------------------
+
+    private static List<Endpoint> endpoints(String base, int cars, List<String> bookable) {
+        int members = cars * 10;
+        return List.of(
+                new Endpoint("search", Set.of(200, 404), n -> {
+                    // busiest locations, sliding over the next two months
+                    LocalDateTime pickup = LocalDate.now().plusDays(1 + n % 60).atTime(10, 0);
+                    String body = String.format(
+                            "{\"pickupLocationCode\":\"L%04d\",\"pickupDate\":\"%s\",\"dropoffDate\":\"%s\"}",
+                            1 + n % 5, pickup, pickup.plusDays(3));
+                    return post(base + "/api/cars/search", body);
+                }),
+                new Endpoint("reservations", Set.of(200), n -> {
+                    // past the generated timeline, one booking per car
+                    LocalDateTime pickup = BOOKING_START.atTime(10, 0);
+                    String body = String.format(
+                            "{\"carBarcode\":\"%s\",\"memberId\":%d,\"pickupLocationCode\":\"L0001\"," +
+                                    "\"dropoffLocationCode\":\"L0001\",\"pickupDateTime\":\"%s\",\"dropoffDateTime\":\"%s\"}",
+                            bookable.get((int) (n % bookable.size())), 1 + n % members, pickup, pickup.plusDays(2));
+                    return post(base + "/api/reservations", body);
+                }),
+                new Endpoint("rented", Set.of(200, 404), n ->
+                        HttpRequest.newBuilder(URI.create(base + "/api/cars/rented")).timeout(REQUEST_TIMEOUT).GET().build()));
+    }
+
+    // --rate times <endpoint>.rate-ratio (default 1)
+    private static Map<String, Double> offeredRates(List<Endpoint> endpoints, int rate, Properties budget) {
+        Map<String, Double> rates = new LinkedHashMap<>();
+        for (Endpoint endpoint : endpoints) {
+            String ratio = budget.getProperty(endpoint.name() + ".rate-ratio", "1");
+            rates.put(endpoint.name(), rate * Double.parseDouble(ratio));
+        }
+        return rates;
+    }
+
+    // One pacer per endpoint; request i is due at start + i / rate and latency counts from then
+    private static Map<String, Result> drive(HttpClient client, ExecutorService virtualThreads,
+                                             List<Endpoint> endpoints, Map<String, Double> rates, Duration duration)
+            throws InterruptedException {
+        Map<String, Result> results = new LinkedHashMap<>();
+        List<Thread> pacers = new ArrayList<>();
+        long start = System.nanoTime();
+        long end = start + duration.toNanos();
+        AtomicLong inFlight = new AtomicLong();
+
+        for (Endpoint endpoint : endpoints) {
+            long intervalNanos = (long) (TimeUnit.SECONDS.toNanos(1) / rates.get(endpoint.name()));
+            Result result = new Result();
+            results.put(endpoint.name(), result);
+            pacers.add(Thread.ofVirtual().name("pacer-" + endpoint.name()).start(() -> {
+                for (long i = 0; ; i++) {
+                    long due = start + i * intervalNanos;
+                    if (due >= end) {
+                        return;
+                    }
+                    long wait = due - System.nanoTime();
+                    if (wait > 0) {
+                        LockSupport.parkNanos(wait);
+                    }
+                    long sequence = endpoint.sequence().getAndIncrement();
+                    result.sent.incrementAndGet();
+                    inFlight.incrementAndGet();
+                    virtualThreads.execute(() -> {
+                        try {
+                            HttpResponse<Void> response = client.send(endpoint.request().apply(sequence),
+                                    HttpResponse.BodyHandlers.discarding());
+                            if (!endpoint.expectedStatuses().contains(response.statusCode())) {
+                                result.errors.incrementAndGet();
+                            }
+                        } catch (IOException | InterruptedException e) {
+                            result.errors.incrementAndGet();
+                        } finally {
+                            long micros = (System.nanoTime() - due) / 1000;
+                            result.latencyMicros.recordValue(Math.min(micros, HIGHEST_LATENCY_MS * 1000));
+                            inFlight.decrementAndGet();
+                        }
+                    });
+                }
+            }));
+        }
+        for (Thread pacer : pacers) {
+            pacer.join();
+        }
+        long drainDeadline = System.nanoTime() + REQUEST_TIMEOUT.toNanos() * 2;
+        while (inFlight.get() > 0 && System.nanoTime() < drainDeadline) {
+            Thread.sleep(10);
+        }
+        return results;
+    }
+
+    // -------------------------
+    // REPORT
+    // -------------------------
+
+    private static boolean report(Map<String, Result> results, Map<String, Double> rates, Duration duration,
+                                  Properties budget, Path reportDir)
+            throws IOException {
+        Files.createDirectories(reportDir);
+        boolean passed = true;
+        System.out.printf("%-14s %8s %8s %10s %9s %9s %9s %9s%n",
+                "endpoint", "sent", "errors", "req/s", "p50 ms", "p99 ms", "p99.9 ms", "max ms");
+        for (Map.Entry<String, Result> entry : results.entrySet()) {
+            String name = entry.getKey();
+            Result result = entry.getValue();
+            double rate = rates.get(name);
+            Histogram histogram = result.latencyMicros;
+            long completed = histogram.getTotalCount() - result.errors.get();
+            double throughput = completed / (double) duration.toSeconds();
+            Map<String, Double> measured = new HashMap<>();
+            measured.put("p50", histogram.getValueAtPercentile(50) / 1000.0);
+            measured.put("p99", histogram.getValueAtPercentile(99) / 1000.0);
+            measured.put("p999", histogram.getValueAtPercentile(99.9) / 1000.0);
+            System.out.printf("%-14s %8d %8d %10.1f %9.2f %9.2f %9.2f %9.2f%n", name, result.sent.get(),
+                    result.errors.get(), throughput, measured.get("p50"), measured.get("p99"),
+                    measured.get("p999"), histogram.getMaxValue() / 1000.0);
+
+            try (PrintStream out = new PrintStream(Files.newOutputStream(reportDir.resolve(name + ".hgrm")))) {
+                histogram.outputPercentileDistribution(out, 1000.0);
+            }
+
+            for (String percentile : List.of("p50", "p99", "p999")) {
+                String limit = budget.getProperty(name + "." + percentile + ".ms");
+                if (limit != null && measured.get(percentile) > Double.parseDouble(limit)) {
+                    System.out.printf("  %s %s = %.2f ms > %s ms%n", name, percentile, measured.get(percentile), limit);
+                    passed = false;
+                }
+            }
+            String minRatio = budget.getProperty(name + ".min-throughput-ratio");
+            if (minRatio != null && throughput < rate * Double.parseDouble(minRatio)) {
+                System.out.printf("  %s throughput = %.1f req/s < %s x %.1f req/s offered%n",
+                        name, throughput, minRatio, rate);
+                passed = false;
+            }
+            String maxErrors = budget.getProperty(name + ".max-errors", "0");
+            if (result.errors.get() > Long.parseLong(maxErrors)) {
+                System.out.printf("  %s errors = %d > %s%n", name, result.errors.get(), maxErrors);
+                passed = false;
+            }
+        }
+        return passed;
+    }
+
+    // -------------------------
+    // APPLICATION
+    // -------------------------
+
+    private static Process startApplication(Path appJar, int port, int managementPort, int cars) throws IOException {
+        String java = ProcessHandle.current().info().command().orElse("java");
+        return new ProcessBuilder(java, "-jar", appJar.toAbsolutePath().toString(),
+                "--spring.profiles.active=prod,datagen",
+                "--server.port=" + port,
+                "--management.server.port=" + managementPort,
+                "--management.endpoint.health.probes.enabled=true",
+                "--rentacar.datagen.locations=" + LOCATIONS,
+                "--rentacar.datagen.cars=" + cars,
+                "--rentacar.datagen.members=" + cars * 10,
+                "--rentacar.datagen.reservations=" + cars * 20L)
+                .redirectOutput(ProcessBuilder.Redirect.DISCARD)
+                .redirectErrorStream(true)
+                .start();
+    }
+
+    // readiness flips after the datagen runner has filled the database; prod serves it on the loopback management port
+    private static void awaitReady(HttpClient client, String management, Process app) throws Exception {
+        HttpRequest readiness = HttpRequest.newBuilder(URI.create(management + "/actuator/health/readiness")).build();
+        long deadline = System.nanoTime() + TimeUnit.MINUTES.toNanos(5);
+        while (System.nanoTime() < deadline) {
+            if (!app.isAlive()) {
+                throw new IllegalStateException("Application exited with code " + app.exitValue());
+            }
+            try {
+                if (client.send(readiness, HttpResponse.BodyHandlers.discarding()).statusCode() == 200) {
+                    return;
+                }
+            } catch (IOException e) {
+                // not listening yet
+            }
+            Thread.sleep(250);
+        }
+        throw new IllegalStateException("Application not ready within 5 minutes");
+    }
+
+    // AVAILABLE cars with nothing booked at BOOKING_START: the cars search finds at every location
+    private static List<String> bookableCars(HttpClient client, String base) throws Exception {
+        LocalDateTime pickup = BOOKING_START.atTime(10, 0);
+        Pattern barcode = Pattern.compile("\"barcode\":\"([^\"]+)\"");
+        List<String> bookable = new ArrayList<>();
+        for (int location = 1; location <= LOCATIONS; location++) {
+            String body = String.format(
+                    "{\"pickupLocationCode\":\"L%04d\",\"pickupDate\":\"%s\",\"dropoffDate\":\"%s\"}",
+                    location, pickup, pickup.plusDays(2));
+            Matcher found = barcode.matcher(client.send(post(base + "/api/cars/search", body),
+                    HttpResponse.BodyHandlers.ofString()).body());
+            while (found.find()) {
+                bookable.add(found.group(1));
+            }
+        }
+        return bookable;
+    }
+
+    private static HttpRequest post(String url, String json) {
+        return HttpRequest.newBuilder(URI.create(url))
+                .timeout(REQUEST_TIMEOUT)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(json))
+                .build();
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+
+    private static Map<String, String> options(String[] args) {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            if (!arg.startsWith("--") || !arg.contains("=")) {
+                throw new IllegalArgumentException("Expected --name=value, got " + arg);
+            }
+            int split = arg.indexOf('=');
+            options.put(arg.substring(2, split), arg.substring(split + 1));
+        }
+        return options;
+    }
+
+    private static String required(Map<String, String> options, String name) {
+        String value = options.get(name);
+        if (value == null) {
+            throw new IllegalArgumentException("Missing --" + name + "=...");
+        }
+        return value;
+    }
+}
@@ -0,0 +1,48 @@
+package com.rentacar.config;
+
+import com.rentacar.service.FleetVersion;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpHeaders;
+
+@Configuration
+@ConditionalOnProperty(name = "rentacar.bulkhead.enabled", havingValue = "true", matchIfMissing = true)
+@EnableConfigurationProperties(BulkheadProperties.class)
+public class BulkheadConfig {
+
+    @Bean
+    public BulkheadFilter bulkheadFilter(BulkheadProperties properties, MeterRegistry registry,
+                                         ObjectProvider<HikariDataSource> pools,
+                                         ObjectProvider<FleetVersion> fleetVersion) {
+        int poolSize = smallestPool(pools);
+        int permits = properties.getSearch().getMaxConcurrent() + properties.getReservations().getMaxConcurrent();
+        if (permits > poolSize) {
+            throw new IllegalStateException("Bulkheads allow " + permits + " concurrent search and reservation "
+                    + "requests but the connection pool has " + poolSize
+                    + " connections; lower rentacar.bulkhead.*.max-concurrent");
+        }
+        int other = properties.getOther().getMaxConcurrent() > 0
+                ? Math.min(properties.getOther().getMaxConcurrent(), poolSize)
+                : poolSize;
+        // CarController checks the fleet ETag before it queries. Looked up per request: FleetVersion
+        // needs the EntityManagerFactory, which prod bootstraps in the background
+        return new BulkheadFilter(properties, other, request -> {
+            String ifNoneMatch = request.getHeader(HttpHeaders.IF_NONE_MATCH);
+            return ifNoneMatch != null && "GET".equals(request.getMethod())
+                    && fleetVersion.getObject().isCurrent(ifNoneMatch);
+        }, registry);
+    }
+
+    // With a replica any request may end up on either pool (pinned reads, writes), so the smaller one bounds it
+    private static int smallestPool(ObjectProvider<HikariDataSource> pools) {
+        return pools.orderedStream()
+                .mapToInt(HikariDataSource::getMaximumPoolSize)
+                .min()
+                .orElseThrow(() -> new IllegalStateException("No Hikari connection pool to size the bulkheads by"));
+    }
+}
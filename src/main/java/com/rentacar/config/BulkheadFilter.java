@@ -0,0 +1,143 @@
+package com.rentacar.config;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+
+/**
+ * Semaphore bulkheads per endpoint class. Requests to /api/cars/search and to /api/reservations
+ * take a permit from their own fair semaphore, queueing up to max-wait, so a surge of searches
+ * cannot hold every pooled connection while bookings wait (and the reverse). The rest of /api
+ * shares the "other" bulkhead, as wide as the connection pool by default, so it only queues
+ * requests the pool could not serve anyway. Paths outside /api (docs, static files, actuator)
+ * and conditional GETs that will be answered with a 304 from memory take no permit. On virtual
+ * threads a queued request parks without tying up a carrier thread. A request that times out in
+ * the queue gets a 503 with Retry-After.
+ */
+public class BulkheadFilter extends OncePerRequestFilter {
+
+    private static final String API = "/api";
+
+    private final List<Bulkhead> bulkheads;
+    private final Bulkhead other;
+    private final Predicate<HttpServletRequest> notModified;
+
+    /**
+     * otherMaxConcurrent: permits of the bulkhead for the rest of /api (BulkheadConfig sizes it).
+     * notModified: true for a request the controller will answer with a 304 before any query.
+     */
+    public BulkheadFilter(BulkheadProperties properties, int otherMaxConcurrent,
+                          Predicate<HttpServletRequest> notModified, MeterRegistry registry) {
+        this.bulkheads = List.of(
+                new Bulkhead("search", "/api/cars/search", properties.getSearch(), registry),
+                new Bulkhead("reservations", "/api/reservations", properties.getReservations(), registry));
+        this.other = new Bulkhead("other", API,
+                new BulkheadProperties.Limit(otherMaxConcurrent, properties.getOther().getMaxWait()), registry);
+        this.notModified = notModified;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !other.matches(path(request));
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        if (notModified.test(request)) {
+            chain.doFilter(request, response);
+            return;
+        }
+
+        String path = path(request);
+        Bulkhead bulkhead = other;
+        for (Bulkhead candidate : bulkheads) {
+            if (candidate.matches(path)) {
+                bulkhead = candidate;
+                break;
+            }
+        }
+
+        if (!bulkhead.acquire()) {
+            response.setHeader(HttpHeaders.RETRY_AFTER, "1");
+            response.sendError(HttpServletResponse.SC_SERVICE_UNAVAILABLE);
+            return;
+        }
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            bulkhead.semaphore.release();
+        }
+    }
+
+    private static String path(HttpServletRequest request) {
+        return request.getRequestURI().substring(request.getContextPath().length());
+    }
+
+    private static final class Bulkhead {
+
+        private final String prefix;
+        private final Semaphore semaphore;
+        private final int maxConcurrent;
+        private final long maxWaitNanos;
+        private final Timer acquired;
+        private final Timer rejected;
+
+        Bulkhead(String name, String prefix, BulkheadProperties.Limit limit, MeterRegistry registry) {
+            this.prefix = prefix;
+            this.maxConcurrent = limit.getMaxConcurrent();
+            this.semaphore = new Semaphore(maxConcurrent, true);
+            this.maxWaitNanos = limit.getMaxWait().toNanos();
+
+            // rentacar.bulkhead.wait{bulkhead,outcome}: time spent queueing for a permit
+            this.acquired = waitTimer(name, "acquired", registry);
+            this.rejected = waitTimer(name, "rejected", registry);
+            Gauge.builder("rentacar.bulkhead.active", semaphore, s -> maxConcurrent - s.availablePermits())
+                    .tag("bulkhead", name)
+                    .description("Requests holding a bulkhead permit")
+                    .register(registry);
+            Gauge.builder("rentacar.bulkhead.queued", semaphore, Semaphore::getQueueLength)
+                    .tag("bulkhead", name)
+                    .description("Requests waiting for a bulkhead permit")
+                    .register(registry);
+        }
+
+        boolean matches(String path) {
+            return path.equals(prefix) || path.startsWith(prefix + "/");
+        }
+
+        boolean acquire() {
+            long start = System.nanoTime();
+            boolean granted;
+            try {
+                granted = semaphore.tryAcquire(maxWaitNanos, TimeUnit.NANOSECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                granted = false;
+            }
+            (granted ? acquired : rejected).record(Duration.ofNanos(System.nanoTime() - start));
+            return granted;
+        }
+
+        private static Timer waitTimer(String name, String outcome, MeterRegistry registry) {
+            return Timer.builder("rentacar.bulkhead.wait")
+                    .tag("bulkhead", name)
+                    .tag("outcome", outcome)
+                    .description("Time queued for a bulkhead permit")
+                    .register(registry);
+        }
+    }
+}
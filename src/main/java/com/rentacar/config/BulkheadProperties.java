@@ -0,0 +1,43 @@
+package com.rentacar.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+// Concurrency limits of BulkheadFilter; search + reservations must leave room in the connection pool
+@ConfigurationProperties(prefix = "rentacar.bulkhead")
+@Getter
+@Setter
+public class BulkheadProperties {
+
+    private boolean enabled = true;
+
+    // GET and POST /api/cars/search
+    private Limit search = new Limit(5, Duration.ofSeconds(2));
+
+    // /api/reservations/**
+    private Limit reservations = new Limit(3, Duration.ofSeconds(5));
+
+    // The rest of /api; max-concurrent 0 sizes it to the connection pool
+    private Limit other = new Limit(0, Duration.ofSeconds(2));
+
+    @Getter
+    @Setter
+    public static class Limit {
+
+        private int maxConcurrent;
+
+        // queued longer than this -> 503 with Retry-After
+        private Duration maxWait;
+
+        public Limit() {
+        }
+
+        public Limit(int maxConcurrent, Duration maxWait) {
+            this.maxConcurrent = maxConcurrent;
+            this.maxWait = maxWait;
+        }
+    }
+}
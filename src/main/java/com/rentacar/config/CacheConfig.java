@@ -0,0 +1,83 @@
+package com.rentacar.config;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.persistence.EntityManagerFactory;
+import org.ehcache.jsr107.EhcacheCachingProvider;
+import org.ehcache.xml.XmlConfiguration;
+import org.hibernate.SessionFactory;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.hibernate.cache.jcache.internal.JCacheRegionFactory;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import java.net.URI;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Hibernate second-level and query cache on a local Ehcache (JCache) manager. Region sizes
+ * live in ehcache.xml. Every application context gets its own manager, so contexts with
+ * different databases (e.g. test slices) never see each other's rows.
+ */
+@Configuration
+@ConditionalOnProperty(name = "rentacar.cache.enabled", havingValue = "true", matchIfMissing = true)
+public class CacheConfig {
+
+    // Entity regions (@Cache on Car, Location, Extra) and query regions (repository hints)
+    static final List<String> REGIONS = List.of(
+            "cars", "locations", "extras", "cars-by-barcode", "locations-by-code", "extras-by-name");
+
+    @Bean(destroyMethod = "close")
+    public CacheManager entityCacheManager() {
+        EhcacheCachingProvider provider = (EhcacheCachingProvider)
+                Caching.getCachingProvider(EhcacheCachingProvider.class.getName());
+        URI name = URI.create("urn:rentacar:entity-cache:" + UUID.randomUUID());
+        return provider.getCacheManager(name, new XmlConfiguration(getClass().getResource("/ehcache.xml")));
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer entityCacheCustomizer(CacheManager entityCacheManager) {
+        return properties -> {
+            properties.put(AvailableSettings.USE_SECOND_LEVEL_CACHE, true);
+            properties.put(AvailableSettings.USE_QUERY_CACHE, true);
+            properties.put(AvailableSettings.CACHE_REGION_FACTORY, JCacheRegionFactory.class.getName());
+            properties.put(ConfigSettings.CACHE_MANAGER, entityCacheManager);
+            // Every region must be declared in ehcache.xml, so none grows unbounded
+            properties.put(ConfigSettings.MISSING_CACHE_STRATEGY, "fail");
+        };
+    }
+
+    // rentacar.cache.hit.ratio{region=...}: hits / (hits + misses) since startup. Needs Hibernate's
+    // statistics, which are off in prod
+    @Bean
+    @ConditionalOnProperty(name = "rentacar.metrics.hibernate-statistics", havingValue = "true")
+    public MeterBinder entityCacheMetrics(EntityManagerFactory entityManagerFactory) {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        return registry -> {
+            for (String region : REGIONS) {
+                Gauge.builder("rentacar.cache.hit.ratio", statistics, s -> hitRatio(s, region))
+                        .tag("region", region)
+                        .description("Second-level cache hit ratio")
+                        .register(registry);
+            }
+        };
+    }
+
+    static double hitRatio(Statistics statistics, String region) {
+        CacheRegionStatistics regionStatistics = statistics.getCacheRegionStatistics(region);
+        if (regionStatistics == null) {
+            return 0.0;
+        }
+        long hits = regionStatistics.getHitCount();
+        long lookups = hits + regionStatistics.getMissCount();
+        return lookups == 0 ? 0.0 : (double) hits / lookups;
+    }
+}
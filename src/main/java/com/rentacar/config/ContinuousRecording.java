@@ -0,0 +1,91 @@
+package com.rentacar.config;
+
+import com.rentacar.service.BookingEvents;
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+import jdk.management.jfr.FlightRecorderMXBean;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+
+/**
+ * Always-on JDK Flight Recorder recording, kept on disk as a ring buffer bounded by
+ * rentacar.jfr.max-age and max-size, with the booking events (BookingEvents) enabled and the
+ * environment variable and system property events disabled. dump() writes the last few minutes
+ * to a .jfr file for JDK Mission Control or the jfr tool.
+ */
+@Component
+@ConditionalOnProperty(name = "rentacar.jfr.enabled", havingValue = "true")
+@EnableConfigurationProperties(FlightRecorderProperties.class)
+public class ContinuousRecording implements DisposableBean {
+
+    static final String NAME = "rentacar-continuous";
+    static final String INITIAL_ENVIRONMENT_VARIABLE = "jdk.InitialEnvironmentVariable";
+    static final String INITIAL_SYSTEM_PROPERTY = "jdk.InitialSystemProperty";
+
+    private final FlightRecorderProperties properties;
+    private final Recording recording;
+
+    public ContinuousRecording(FlightRecorderProperties properties) throws IOException, ParseException {
+        this.properties = properties;
+        recording = new Recording(Configuration.getConfiguration(properties.getSettings()));
+        recording.setName(NAME);
+        recording.setToDisk(true);
+        recording.setMaxAge(properties.getMaxAge());
+        recording.setMaxSize(properties.getMaxSize().toBytes());
+        recording.enable(BookingEvents.SEARCH);
+        recording.enable(BookingEvents.RESERVATION);
+        recording.enable(BookingEvents.RESERVATION_PHASE);
+        // the environment and -D flags carry credentials (datasource passwords); keep them out of dumps
+        recording.disable(INITIAL_ENVIRONMENT_VARIABLE);
+        recording.disable(INITIAL_SYSTEM_PROPERTY);
+        recording.start();
+    }
+
+    public FlightRecorderProperties getProperties() {
+        return properties;
+    }
+
+    /**
+     * Writes the events of the last {@code window} to a new temporary file. Data is cut at chunk
+     * boundaries, so the file may start somewhat earlier than asked.
+     */
+    public Path dump(Duration window) throws IOException {
+        Path file = Files.createTempFile("rentacar-", ".jfr");
+        // a stopped copy flushes the chunk in progress, so the dump reaches up to now
+        try (Recording snapshot = recording.copy(true);
+             OutputStream out = Files.newOutputStream(file)) {
+            FlightRecorderMXBean flightRecorder = ManagementFactory.getPlatformMXBean(FlightRecorderMXBean.class);
+            String startTime = String.valueOf(Instant.now().minus(window).toEpochMilli());
+            long stream = flightRecorder.openStream(snapshot.getId(), Map.of("startTime", startTime));
+            try {
+                byte[] block;
+                while ((block = flightRecorder.readStream(stream)) != null) {
+                    out.write(block);
+                }
+            } finally {
+                flightRecorder.closeStream(stream);
+            }
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(file);
+            throw e;
+        }
+        return file;
+    }
+
+    @Override
+    public void destroy() {
+        recording.close();
+    }
+}
@@ -2,13 +2,16 @@ package com.rentacar.config;
 
 import com.rentacar.model.*;
 import com.rentacar.repository.*;
+import com.rentacar.service.ExtraCatalog;
 import lombok.RequiredArgsConstructor;
 import org.springframework.boot.CommandLineRunner;
+import org.springframework.context.annotation.Profile;
 import org.springframework.stereotype.Component;
 import java.time.LocalDateTime;
 import java.util.List;
 
 @Component
+@Profile("!datagen")
 @RequiredArgsConstructor
 public class DataInitializer implements CommandLineRunner {
 
@@ -17,6 +20,7 @@ public class DataInitializer implements CommandLineRunner {
     private final MemberRepository memberRepo;
     private final ExtraRepository extraRepo;
     private final ReservationRepository reservationRepo; // Добавляем
+    private final ExtraCatalog extraCatalog;
 
     @Override
     public void run(String... args) {
@@ -63,6 +67,7 @@ public class DataInitializer implements CommandLineRunner {
             reservation.setMember(member);
             reservation.setCar(car1);
             reservation.setExtras(List.of(gps));
+            reservation.setExtrasMask(extraCatalog.maskOf(reservation.getExtras()));
 
             reservationRepo.save(reservation);
 
@@ -0,0 +1,78 @@
+package com.rentacar.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.nio.charset.StandardCharsets;
+import java.security.SecureRandom;
+import java.time.Duration;
+
+/**
+ * Primary/replica routing, enabled with rentacar.datasource.replica.enabled. The primary
+ * uses spring.datasource.* (pool settings under spring.datasource.hikari), the replica
+ * rentacar.datasource.replica.* (url, username, password, driver-class-name, hikari); the replica
+ * url has no default and must point at a copy of the primary. A client's reads stay on the
+ * primary for max-lag after its own writes commit.
+ */
+@Configuration
+@ConditionalOnProperty(name = "rentacar.datasource.replica.enabled", havingValue = "true")
+public class DataSourceRoutingConfig {
+
+    @Bean(destroyMethod = "close")
+    @ConfigurationProperties(prefix = "spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        dataSource.setPoolName("primary");
+        return dataSource;
+    }
+
+    @Bean(destroyMethod = "close")
+    public HikariDataSource replicaDataSource(Environment environment) {
+        // No default: only the primary gets ddl-auto, so the replica must be a real copy of it
+        DataSourceProperties properties = Binder.get(environment)
+                .bind("rentacar.datasource.replica", DataSourceProperties.class)
+                .orElseGet(DataSourceProperties::new);
+        if (properties.getUrl() == null || properties.getUrl().isBlank()) {
+            throw new IllegalStateException("rentacar.datasource.replica.url is not set");
+        }
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        Binder.get(environment).bind("rentacar.datasource.replica.hikari", Bindable.ofInstance(dataSource));
+        dataSource.setPoolName("replica");
+        dataSource.setReadOnly(true);
+        return dataSource;
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(HikariDataSource primaryDataSource, HikariDataSource replicaDataSource,
+                                 Environment environment) {
+        Duration maxLag = Binder.get(environment)
+                .bind("rentacar.datasource.replica.max-lag", Duration.class)
+                .orElse(Duration.ZERO);
+        return new LazyConnectionDataSourceProxy(
+                new ReadWriteRoutingDataSource(primaryDataSource, replicaDataSource, maxLag));
+    }
+
+    // Without a configured pin-key every start signs with a fresh one; pins issued before a restart
+    // or by another instance then read as unpinned
+    @Bean
+    public ReplicaPinFilter replicaPinFilter(Environment environment) {
+        String pinKey = environment.getProperty("rentacar.datasource.replica.pin-key");
+        if (pinKey != null && !pinKey.isBlank()) {
+            return new ReplicaPinFilter(pinKey.getBytes(StandardCharsets.UTF_8));
+        }
+        byte[] key = new byte[32];
+        new SecureRandom().nextBytes(key);
+        return new ReplicaPinFilter(key);
+    }
+}
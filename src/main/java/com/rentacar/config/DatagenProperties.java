@@ -0,0 +1,36 @@
+package com.rentacar.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.LocalDate;
+
+// Sizes and seed of the synthetic dataset written by SyntheticDataGenerator (datagen profile)
+@ConfigurationProperties(prefix = "rentacar.datagen")
+@Getter
+@Setter
+public class DatagenProperties {
+
+    private long seed = 42;
+
+    private int locations = 50;
+
+    private int cars = 100_000;
+
+    private int members = 1_000_000;
+
+    private long reservations = 10_000_000;
+
+    // reservation timeline is [anchor - pastDays, anchor + futureDays); defaults to today
+    private LocalDate anchorDate;
+
+    private int pastDays = 730;
+
+    private int futureDays = 90;
+
+    // 0 = one per available processor
+    private int threads = 0;
+
+    private int batchSize = 1_000;
+}
@@ -0,0 +1,28 @@
+package com.rentacar.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+
+// Continuous JFR recording kept by ContinuousRecording (rentacar.jfr.enabled)
+@ConfigurationProperties(prefix = "rentacar.jfr")
+@Getter
+@Setter
+public class FlightRecorderProperties {
+
+    private boolean enabled = false;
+
+    // JDK settings file: "default" (about 1% overhead) or "profile" (more detail, about 2%)
+    private String settings = "default";
+
+    // the ring buffer: chunks older or beyond this size are dropped
+    private Duration maxAge = Duration.ofMinutes(30);
+
+    private DataSize maxSize = DataSize.ofMegabytes(100);
+
+    // window dumped by the flightrecording endpoint when no minutes are given
+    private Duration dumpWindow = Duration.ofMinutes(5);
+}
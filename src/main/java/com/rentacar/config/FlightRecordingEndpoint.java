@@ -0,0 +1,61 @@
+package com.rentacar.config;
+
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.web.WebEndpointResponse;
+import org.springframework.boot.actuate.endpoint.web.annotation.WebEndpoint;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+
+/**
+ * GET /actuator/flightrecording?minutes=N: the last N minutes (default rentacar.jfr.dump-window)
+ * of the continuous recording as a .jfr file.
+ */
+@Component
+@WebEndpoint(id = "flightrecording")
+@ConditionalOnProperty(name = "rentacar.jfr.enabled", havingValue = "true")
+public class FlightRecordingEndpoint {
+
+    private final ContinuousRecording recording;
+
+    public FlightRecordingEndpoint(ContinuousRecording recording) {
+        this.recording = recording;
+    }
+
+    @ReadOperation(produces = "application/octet-stream")
+    public WebEndpointResponse<Resource> dump(@Nullable Integer minutes) throws IOException {
+        FlightRecorderProperties properties = recording.getProperties();
+        Duration window = minutes == null ? properties.getDumpWindow() : Duration.ofMinutes(minutes);
+        if (window.isNegative() || window.isZero() || window.compareTo(properties.getMaxAge()) > 0) {
+            return new WebEndpointResponse<>(WebEndpointResponse.STATUS_BAD_REQUEST);
+        }
+        return new WebEndpointResponse<>(new TemporaryFileResource(recording.dump(window)));
+    }
+
+    // The dump file is removed once the response has been streamed
+    private static final class TemporaryFileResource extends FileSystemResource {
+
+        TemporaryFileResource(Path path) {
+            super(path);
+        }
+
+        @Override
+        public InputStream getInputStream() throws IOException {
+            return Files.newInputStream(getFile().toPath(), StandardOpenOption.DELETE_ON_CLOSE);
+        }
+
+        @Override
+        public boolean isFile() {
+            return false;
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package com.rentacar.config;
+
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.type.TypeFactory;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.rentacar.dto.CarResponseDTO;
+import com.rentacar.dto.RentedCarDTO;
+import com.rentacar.dto.ReservationHistoryPageDTO;
+import com.rentacar.dto.ReservationResponseDTO;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.converter.HttpMessageNotWritableException;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.http.converter.json.MappingJacksonValue;
+import org.springframework.lang.Nullable;
+
+import java.io.IOException;
+import java.lang.reflect.Type;
+import java.util.List;
+
+/**
+ * Response encoding. JSON by default; clients sending Accept: application/cbor get the same
+ * documents as CBOR, which is smaller and cheaper to write. Both converters write through
+ * PrebuiltWriters. Compression itself is server.compression in application.yml.
+ */
+@Configuration
+public class HttpConfig {
+
+    // Replaces Spring Boot's default JSON converter (it backs off when one is defined)
+    @Bean
+    public MappingJackson2HttpMessageConverter mappingJackson2HttpMessageConverter(ObjectMapper objectMapper) {
+        return new PrebuiltJsonHttpMessageConverter(objectMapper);
+    }
+
+    // Same modules and date handling as the JSON mapper, CBOR encoding
+    @Bean
+    public MappingJackson2CborHttpMessageConverter mappingJackson2CborHttpMessageConverter(
+            Jackson2ObjectMapperBuilder builder) {
+        return new PrebuiltCborHttpMessageConverter(builder.factory(new CBORFactory()).build());
+    }
+
+    // The high-volume bodies of CarController and ReservationController
+    static List<JavaType> hotResponseTypes(ObjectMapper objectMapper) {
+        TypeFactory types = objectMapper.getTypeFactory();
+        return List.of(
+                types.constructCollectionType(List.class, CarResponseDTO.class),
+                types.constructCollectionType(List.class, RentedCarDTO.class),
+                types.constructType(ReservationResponseDTO.class),
+                types.constructType(ReservationHistoryPageDTO.class));
+    }
+
+    static final class PrebuiltJsonHttpMessageConverter extends MappingJackson2HttpMessageConverter {
+
+        private final PrebuiltWriters writers;
+
+        PrebuiltJsonHttpMessageConverter(ObjectMapper objectMapper) {
+            super(objectMapper);
+            this.writers = new PrebuiltWriters(objectMapper, hotResponseTypes(objectMapper));
+        }
+
+        @Override
+        protected void writeInternal(Object object, @Nullable Type type, HttpOutputMessage outputMessage)
+                throws IOException, HttpMessageNotWritableException {
+            if (object instanceof MappingJacksonValue) {
+                super.writeInternal(object, type, outputMessage);
+                return;
+            }
+            writers.write(object, type, outputMessage);
+        }
+    }
+
+    static final class PrebuiltCborHttpMessageConverter extends MappingJackson2CborHttpMessageConverter {
+
+        private final PrebuiltWriters writers;
+
+        PrebuiltCborHttpMessageConverter(ObjectMapper objectMapper) {
+            super(objectMapper);
+            this.writers = new PrebuiltWriters(objectMapper, hotResponseTypes(objectMapper));
+        }
+
+        @Override
+        protected void writeInternal(Object object, @Nullable Type type, HttpOutputMessage outputMessage)
+                throws IOException, HttpMessageNotWritableException {
+            if (object instanceof MappingJacksonValue) {
+                super.writeInternal(object, type, outputMessage);
+                return;
+            }
+            writers.write(object, type, outputMessage);
+        }
+    }
+}
@@ -6,16 +6,19 @@ import io.swagger.v3.oas.models.info.Contact;
 import io.swagger.v3.oas.models.info.License;
 import io.swagger.v3.oas.models.servers.Server;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
 import java.util.List;
 
 @Configuration
+@ConditionalOnProperty(name = "springdoc.api-docs.enabled", havingValue = "true", matchIfMissing = true)
 public class OpenApiConfig {
 
-    @Value("${server.port:8080}")
-    private String serverPort;
+    // the build-time spec pins this so it does not carry the generator's random port
+    @Value("${rentacar.openapi.server-url:http://localhost:${server.port:8080}}")
+    private String serverUrl;
 
     @Bean
     public OpenAPI customOpenAPI() {
@@ -33,7 +36,7 @@ public class OpenApiConfig {
                                 .url("http://springdoc.org")))
                 .servers(List.of(
                         new Server()
-                                .url("http://localhost:" + serverPort)
+                                .url(serverUrl)
                                 .description("Local Development Server")
                 ));
     }
@@ -0,0 +1,47 @@
+package com.rentacar.config;
+
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.lang.Nullable;
+import org.springframework.util.FastByteArrayOutputStream;
+import org.springframework.util.TypeUtils;
+
+import java.io.IOException;
+import java.lang.reflect.Type;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * ObjectWriters per response type, built once (the hot DTO types at startup, the rest on first
+ * use) instead of resolving the root serializer on every write. Bodies are rendered into a buffer
+ * and sent with a Content-Length, which Tomcat needs to apply server.compression.min-response-size.
+ */
+final class PrebuiltWriters {
+
+    private final ObjectMapper objectMapper;
+    private final ConcurrentMap<JavaType, ObjectWriter> writers = new ConcurrentHashMap<>();
+
+    PrebuiltWriters(ObjectMapper objectMapper, List<JavaType> prebuilt) {
+        this.objectMapper = objectMapper;
+        for (JavaType type : prebuilt) {
+            writers.put(type, objectMapper.writerFor(type));
+        }
+    }
+
+    ObjectWriter writerFor(JavaType type) {
+        return writers.computeIfAbsent(type, objectMapper::writerFor);
+    }
+
+    // type is the declared body type, e.g. List<CarResponseDTO> from ResponseEntity<List<CarResponseDTO>>
+    void write(Object value, @Nullable Type type, HttpOutputMessage outputMessage) throws IOException {
+        JavaType javaType = type != null && TypeUtils.isAssignable(type, value.getClass())
+                ? objectMapper.constructType(type) : objectMapper.constructType(value.getClass());
+        FastByteArrayOutputStream buffer = new FastByteArrayOutputStream();
+        writerFor(javaType).writeValue(buffer, value);
+        outputMessage.getHeaders().setContentLength(buffer.size());
+        buffer.writeTo(outputMessage.getBody());
+    }
+}
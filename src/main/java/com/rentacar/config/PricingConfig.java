@@ -0,0 +1,28 @@
+package com.rentacar.config;
+
+import com.rentacar.service.DynamicPricing;
+import com.rentacar.service.OccupancyCounters;
+import com.rentacar.service.PricingEngine;
+import com.rentacar.service.PricingRules;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@EnableConfigurationProperties(PricingProperties.class)
+public class PricingConfig {
+
+    @Bean
+    public PricingEngine pricingEngine(PricingProperties properties) {
+        return new PricingEngine(PricingRules.compile(
+                properties.getWeekendMultiplierBps(),
+                properties.getLengthOfRentalTiers(),
+                properties.getCategoryMultiplierBps()));
+    }
+
+    @Bean
+    public DynamicPricing dynamicPricing(PricingProperties properties, OccupancyCounters occupancyCounters) {
+        return new DynamicPricing(properties.getDynamic().isEnabled(),
+                properties.getDynamic().getUtilizationCurve(), occupancyCounters);
+    }
+}
@@ -0,0 +1,34 @@
+package com.rentacar.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.HashMap;
+import java.util.Map;
+
+// Multipliers are in basis points: 10000 = x1.00
+@ConfigurationProperties(prefix = "rentacar.pricing")
+@Getter
+@Setter
+public class PricingProperties {
+
+    private int weekendMultiplierBps = 10000;
+
+    // minimum rental days -> multiplier, e.g. 7: 9000 for 10% off weekly rentals
+    private Map<Integer, Integer> lengthOfRentalTiers = new HashMap<>();
+
+    private Map<String, Integer> categoryMultiplierBps = new HashMap<>();
+
+    private Dynamic dynamic = new Dynamic();
+
+    @Getter
+    @Setter
+    public static class Dynamic {
+
+        private boolean enabled = false;
+
+        // minimum utilization % of the location's fleet in the category -> multiplier, e.g. 80: 12000
+        private Map<Integer, Integer> utilizationCurve = new HashMap<>();
+    }
+}
@@ -0,0 +1,47 @@
+package com.rentacar.config;
+
+/**
+ * Per-thread JDBC statement, entity load and collection fetch counts, fed by the Hibernate
+ * hooks in ObservabilityConfig. A request (or a test) resets the counts, does its work on
+ * one thread and reads them back; nothing is shared, so counting costs a field increment.
+ */
+public final class QueryStatistics {
+
+    private static final ThreadLocal<Counts> CURRENT = ThreadLocal.withInitial(Counts::new);
+
+    private QueryStatistics() {
+    }
+
+    public record Snapshot(long statements, long entityLoads, long collectionFetches) {
+    }
+
+    private static final class Counts {
+        long statements;
+        long entityLoads;
+        long collectionFetches;
+    }
+
+    public static void reset() {
+        Counts counts = CURRENT.get();
+        counts.statements = 0;
+        counts.entityLoads = 0;
+        counts.collectionFetches = 0;
+    }
+
+    public static Snapshot snapshot() {
+        Counts counts = CURRENT.get();
+        return new Snapshot(counts.statements, counts.entityLoads, counts.collectionFetches);
+    }
+
+    static void statementPrepared() {
+        CURRENT.get().statements++;
+    }
+
+    static void entityLoaded() {
+        CURRENT.get().entityLoads++;
+    }
+
+    static void collectionFetched() {
+        CURRENT.get().collectionFetches++;
+    }
+}
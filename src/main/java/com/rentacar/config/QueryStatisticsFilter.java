@@ -0,0 +1,52 @@
+package com.rentacar.config;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+
+/**
+ * Records QueryStatistics per HTTP request as distribution summaries tagged with the
+ * request method and the matched URI pattern.
+ */
+public class QueryStatisticsFilter extends OncePerRequestFilter {
+
+    private final MeterRegistry registry;
+
+    public QueryStatisticsFilter(MeterRegistry registry) {
+        this.registry = registry;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        QueryStatistics.reset();
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            QueryStatistics.Snapshot counts = QueryStatistics.snapshot();
+            Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+            Tags tags = Tags.of("method", request.getMethod(), "uri", pattern == null ? "UNKNOWN" : pattern.toString());
+
+            record("rentacar.request.jdbc.statements", "JDBC statements per request", tags, counts.statements());
+            record("rentacar.request.entity.loads", "Entities loaded per request", tags, counts.entityLoads());
+            record("rentacar.request.collection.fetches", "Collections fetched per request", tags,
+                    counts.collectionFetches());
+        }
+    }
+
+    private void record(String name, String description, Tags tags, long value) {
+        DistributionSummary.builder(name)
+                .description(description)
+                .tags(tags)
+                .register(registry)
+                .record(value);
+    }
+}
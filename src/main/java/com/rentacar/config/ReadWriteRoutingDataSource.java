@@ -0,0 +1,94 @@
+package com.rentacar.config;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.Map;
+import java.util.function.LongConsumer;
+
+/**
+ * Sends connections for readOnly transactions to the replica and everything else to the
+ * primary. Must sit behind a LazyConnectionDataSourceProxy so the connection is fetched
+ * after the transaction's readOnly flag is known.
+ * <p>
+ * maxReplicaLag is the replication delay we tolerate. When a write transaction of a client
+ * commits, that client's reads stay on the primary for maxReplicaLag so it sees its own
+ * changes; other clients keep reading from the replica. The client is the {@link ClientPin}
+ * bound to the current thread (ReplicaPinFilter binds one per HTTP request from a cookie the
+ * client sends back). Zero always reads from the replica.
+ */
+public class ReadWriteRoutingDataSource extends AbstractRoutingDataSource {
+
+    public enum Route {
+        PRIMARY, REPLICA
+    }
+
+    /**
+     * Read-your-writes state of one client: reads go to the primary until primaryUntilMillis
+     * (wall clock, as the client carries it between requests). onWrite is told the new deadline
+     * when a write of the client commits.
+     */
+    public static final class ClientPin {
+
+        private volatile long primaryUntilMillis;
+        private final LongConsumer onWrite;
+
+        public ClientPin(long primaryUntilMillis, LongConsumer onWrite) {
+            this.primaryUntilMillis = primaryUntilMillis;
+            this.onWrite = onWrite;
+        }
+
+        boolean readsFromPrimary(long nowMillis) {
+            return nowMillis < primaryUntilMillis;
+        }
+
+        void committed(long primaryUntilMillis) {
+            this.primaryUntilMillis = Math.max(this.primaryUntilMillis, primaryUntilMillis);
+            onWrite.accept(this.primaryUntilMillis);
+        }
+    }
+
+    private static final ThreadLocal<ClientPin> CLIENT = new ThreadLocal<>();
+
+    private final long maxReplicaLagMillis;
+
+    public ReadWriteRoutingDataSource(DataSource primary, DataSource replica, Duration maxReplicaLag) {
+        this.maxReplicaLagMillis = maxReplicaLag.toMillis();
+        setTargetDataSources(Map.of(Route.PRIMARY, primary, Route.REPLICA, replica));
+        setDefaultTargetDataSource(primary);
+        afterPropertiesSet();
+    }
+
+    public static void bindClient(ClientPin pin) {
+        CLIENT.set(pin);
+    }
+
+    public static void unbindClient() {
+        CLIENT.remove();
+    }
+
+    @Override
+    protected Route determineCurrentLookupKey() {
+        ClientPin pin = CLIENT.get();
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            if (pin != null && maxReplicaLagMillis > 0 && TransactionSynchronizationManager.isSynchronizationActive()) {
+                pinOnCommit(pin);
+            }
+            return Route.PRIMARY;
+        }
+        return pin != null && pin.readsFromPrimary(System.currentTimeMillis()) ? Route.PRIMARY : Route.REPLICA;
+    }
+
+    // The lag window starts when the write becomes visible, not when its connection was fetched
+    private void pinOnCommit(ClientPin pin) {
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                pin.committed(System.currentTimeMillis() + maxReplicaLagMillis);
+            }
+        });
+    }
+}
@@ -0,0 +1,97 @@
+package com.rentacar.config;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.util.Base64;
+
+/**
+ * Binds the client's {@link ReadWriteRoutingDataSource.ClientPin} for the request. The pin
+ * travels in a cookie holding the epoch millis until which the client reads from the primary;
+ * it is set when one of the client's write transactions commits and expires with the window.
+ * The value is signed (millis.HMAC), since a client could otherwise send a far-off deadline on
+ * every request and move all its reads to the primary; an unsigned or altered cookie is no pin.
+ */
+public class ReplicaPinFilter extends OncePerRequestFilter {
+
+    static final String COOKIE = "rentacar-primary-until";
+    private static final String ALGORITHM = "HmacSHA256";
+
+    private final SecretKeySpec key;
+
+    public ReplicaPinFilter(byte[] key) {
+        this.key = new SecretKeySpec(key, ALGORITHM);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        ReadWriteRoutingDataSource.bindClient(new ReadWriteRoutingDataSource.ClientPin(
+                primaryUntil(request), until -> pinCookie(response, until)));
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            ReadWriteRoutingDataSource.unbindClient();
+        }
+    }
+
+    private long primaryUntil(HttpServletRequest request) {
+        Cookie[] cookies = request.getCookies();
+        if (cookies != null) {
+            for (Cookie cookie : cookies) {
+                if (COOKIE.equals(cookie.getName())) {
+                    return verified(cookie.getValue());
+                }
+            }
+        }
+        return 0L;
+    }
+
+    private long verified(String value) {
+        int dot = value.indexOf('.');
+        if (dot < 0) {
+            return 0L;
+        }
+        String millis = value.substring(0, dot);
+        try {
+            byte[] signature = Base64.getUrlDecoder().decode(value.substring(dot + 1));
+            return MessageDigest.isEqual(sign(millis), signature) ? Long.parseLong(millis) : 0L;
+        } catch (IllegalArgumentException e) {
+            return 0L;
+        }
+    }
+
+    private byte[] sign(String millis) {
+        try {
+            Mac mac = Mac.getInstance(ALGORITHM);
+            mac.init(key);
+            return mac.doFinal(millis.getBytes(StandardCharsets.US_ASCII));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Cannot sign the " + COOKIE + " cookie", e);
+        }
+    }
+
+    // Writes commit in the service, before the controller renders the body
+    private void pinCookie(HttpServletResponse response, long until) {
+        if (response.isCommitted()) {
+            return;
+        }
+        String millis = Long.toString(until);
+        String signature = Base64.getUrlEncoder().withoutPadding().encodeToString(sign(millis));
+        Cookie cookie = new Cookie(COOKIE, millis + "." + signature);
+        cookie.setPath("/");
+        cookie.setHttpOnly(true);
+        cookie.setMaxAge((int) Math.max(1, (until - System.currentTimeMillis() + 999) / 1000));
+        response.addCookie(cookie);
+    }
+}
@@ -0,0 +1,33 @@
+package com.rentacar.config;
+
+import com.rentacar.service.ExtraInventory;
+import com.rentacar.service.LocationCounters;
+import com.rentacar.service.OccupancyCounters;
+import org.springframework.boot.LazyInitializationExcludeFilter;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.stereotype.Controller;
+
+/**
+ * Beans that stay eager when spring.main.lazy-initialization is on (prod profile). Controllers
+ * pull the whole request path (services, repositories, EntityManagerFactory) in at startup, so
+ * the first request does not pay for it; the in-memory counters load and schedule their rebuilds
+ * at startup, and the continuous flight recording starts with the application. Everything else
+ * (actuator endpoints, springdoc, metrics binders) is created on first use.
+ */
+@Configuration
+public class StartupConfig {
+
+    @Bean
+    static LazyInitializationExcludeFilter requestPathExcludeFilter() {
+        return (beanName, beanDefinition, beanType) ->
+                AnnotatedElementUtils.hasAnnotation(beanType, Controller.class);
+    }
+
+    @Bean
+    static LazyInitializationExcludeFilter countersExcludeFilter() {
+        return LazyInitializationExcludeFilter.forBeanTypes(
+                LocationCounters.class, ExtraInventory.class, OccupancyCounters.class, ContinuousRecording.class);
+    }
+}
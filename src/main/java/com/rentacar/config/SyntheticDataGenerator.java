@@ -0,0 +1,133 @@
+package com.rentacar.config;
+
+import com.rentacar.model.Extra;
+import com.rentacar.repository.ExtraRepository;
+import com.rentacar.service.FleetVersion;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Profile;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.IntFunction;
+
+/**
+ * Fills an empty database with the SyntheticDataset (datagen profile, replaces DataInitializer).
+ * Rows go in through plain JDBC batches from a thread pool, with explicit ids; the id sequences
+ * are moved past them afterwards, so the application keeps allocating ids as usual.
+ *
+ *   java -Xmx8g -jar app.jar --spring.profiles.active=datagen --rentacar.datagen.cars=100000 ...
+ */
+@Component
+@Profile("datagen")
+@EnableConfigurationProperties(DatagenProperties.class)
+public class SyntheticDataGenerator implements CommandLineRunner {
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ExtraRepository extraRepository;
+    private final DatagenProperties properties;
+    private final FleetVersion fleetVersion;
+    private final int allocationSize;
+
+    public SyntheticDataGenerator(JdbcTemplate jdbcTemplate, ExtraRepository extraRepository,
+                                  DatagenProperties properties, FleetVersion fleetVersion,
+                                  @Value("${spring.jpa.properties.rentacar.id.allocation-size:50}") int allocationSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.extraRepository = extraRepository;
+        this.properties = properties;
+        this.fleetVersion = fleetVersion;
+        this.allocationSize = allocationSize;
+    }
+
+    @Override
+    public void run(String... args) throws Exception {
+        Long existing = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM locations", Long.class);
+        if (existing != null && existing > 0) {
+            System.out.println("Database is not empty, skipping synthetic data generation");
+            return;
+        }
+        LocalDate anchor = properties.getAnchorDate() != null ? properties.getAnchorDate() : LocalDate.now();
+        SyntheticDataset dataset = new SyntheticDataset(properties.getSeed(), properties.getLocations(),
+                properties.getCars(), properties.getMembers(), properties.getReservations(),
+                anchor.atStartOfDay(), properties.getPastDays(), properties.getFutureDays());
+
+        int threads = properties.getThreads() > 0 ? properties.getThreads() : Runtime.getRuntime().availableProcessors();
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            long start = System.nanoTime();
+            insert(executor, "locations", SyntheticDataset.LOCATION_COLUMNS, dataset.getLocations(), 1,
+                    index -> List.<Object[]>of(dataset.location(index)));
+            insert(executor, "cars", SyntheticDataset.CAR_COLUMNS, dataset.getCars(), 1,
+                    index -> List.<Object[]>of(dataset.car(index)));
+            insert(executor, "members", SyntheticDataset.MEMBER_COLUMNS, dataset.getMembers(), 1,
+                    index -> List.<Object[]>of(dataset.member(index)));
+            insert(executor, "reservations", SyntheticDataset.RESERVATION_COLUMNS, dataset.getCars(),
+                    dataset.reservationsOf(0), dataset::reservationsForCar);
+            finish(dataset);
+            // the web server is already up, and Hibernate saw none of these rows
+            fleetVersion.invalidate();
+            System.out.printf("Synthetic data generated in %d s%n", (System.nanoTime() - start) / 1_000_000_000);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    // -------------------------
+    // INTERNAL
+    // -------------------------
+
+    // rowsOf(i) yields the rows of item i; items are handed out in chunks of about batchSize rows
+    private void insert(ExecutorService executor, String table, String columns, int items, long rowsPerItem,
+                        IntFunction<List<Object[]>> rowsOf) throws InterruptedException, ExecutionException {
+        String sql = "INSERT INTO " + table + " (" + columns + ") VALUES (" +
+                String.join(", ", Collections.nCopies(columns.split(",").length, "?")) + ")";
+        int batchSize = properties.getBatchSize();
+        int itemsPerChunk = (int) Math.max(1, batchSize / Math.max(1, rowsPerItem));
+
+        List<Future<Integer>> chunks = new ArrayList<>();
+        for (int from = 0; from < items; from += itemsPerChunk) {
+            int chunkFrom = from;
+            int chunkTo = Math.min(items, from + itemsPerChunk);
+            chunks.add(executor.submit(() -> {
+                List<Object[]> rows = new ArrayList<>(batchSize);
+                for (int i = chunkFrom; i < chunkTo; i++) {
+                    rows.addAll(rowsOf.apply(i));
+                }
+                jdbcTemplate.batchUpdate(sql, rows);
+                return rows.size();
+            }));
+        }
+        long inserted = 0;
+        for (Future<Integer> chunk : chunks) {
+            inserted += chunk.get();
+        }
+        System.out.printf("Inserted %d %s%n", inserted, table);
+    }
+
+    private void finish(SyntheticDataset dataset) {
+        // cars out on rental right now, as ReservationService would have left them
+        jdbcTemplate.update("UPDATE cars SET status = 'RESERVED' WHERE id IN (SELECT car_id FROM reservations " +
+                "WHERE status = 'ACTIVE' AND pickup_date <= ? AND dropoff_date > ?)",
+                dataset.getAnchor(), dataset.getAnchor());
+
+        // pooled ids: the first allocation hands out (value - allocationSize, value]
+        for (String table : List.of("locations", "cars", "members", "reservations")) {
+            Long maxId = jdbcTemplate.queryForObject("SELECT COALESCE(MAX(id), 0) FROM " + table, Long.class);
+            jdbcTemplate.execute("ALTER SEQUENCE " + table + "_seq RESTART WITH " + (maxId + allocationSize));
+        }
+
+        extraRepository.saveAll(List.of(
+                new Extra("GPS Navigation", 200.0),
+                new Extra("Baby Seat", 150.0),
+                new Extra("Additional Driver", 300.0)));
+    }
+}
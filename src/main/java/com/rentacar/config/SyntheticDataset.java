@@ -0,0 +1,223 @@
+package com.rentacar.config;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * Deterministic synthetic rows for load and scale tests. Every row is a pure function of the
+ * seed, the anchor and its index, so the same settings give the same database however the
+ * generator splits the work across threads. Rows are Object[] in the column order of the
+ * matching *_COLUMNS constant.
+ *
+ * Locations follow a power law (a few airports hold most of the fleet); category drives seats,
+ * price and automatic share; members follow a power law too (repeat customers); each car gets a
+ * non-overlapping booking timeline, so cars at the same location overlap the way a real fleet does.
+ */
+public final class SyntheticDataset {
+
+    public static final String LOCATION_COLUMNS = "id, code, name";
+    public static final String CAR_COLUMNS = "id, barcode, license_plate, brand, model, number_of_seats, mileage, " +
+            "transmission_type, daily_price, category, status, location_id";
+    public static final String MEMBER_COLUMNS = "id, name, address, email, phone, driving_license_number";
+    public static final String RESERVATION_COLUMNS = "id, reservation_number, creation_date, pickup_date, " +
+            "dropoff_date, return_date, status, member_id, car_id, pickup_location_id, dropoff_location_id, extras_mask";
+
+    private static final int CANCELLED_PERCENT = 8;
+    private static final int ONE_WAY_PERCENT = 15;
+    private static final double MEAN_LEAD_HOURS = 14 * 24;
+    private static final double MEAN_EXTRA_RENTAL_HOURS = 3 * 24;
+
+    private record Category(String name, int weight, int seats, double basePrice, int automaticPercent,
+                            String[][] models) {
+    }
+
+    private static final List<Category> CATEGORIES = List.of(
+            new Category("Economy", 30, 5, 700, 35,
+                    new String[][]{{"Fiat", "Egea"}, {"Renault", "Clio"}, {"Hyundai", "i20"}}),
+            new Category("Compact", 25, 5, 900, 50,
+                    new String[][]{{"Toyota", "Corolla"}, {"Volkswagen", "Golf"}, {"Honda", "Civic"}}),
+            new Category("Mid-size", 18, 5, 1200, 70,
+                    new String[][]{{"Skoda", "Superb"}, {"Toyota", "Camry"}, {"Volkswagen", "Passat"}}),
+            new Category("SUV", 15, 5, 1600, 80,
+                    new String[][]{{"Nissan", "Qashqai"}, {"Dacia", "Duster"}, {"Hyundai", "Tucson"}}),
+            new Category("Van", 7, 8, 1800, 40,
+                    new String[][]{{"Ford", "Tourneo"}, {"Mercedes-Benz", "Vito"}}),
+            new Category("Luxury", 5, 5, 3500, 100,
+                    new String[][]{{"BMW", "5 Series"}, {"Mercedes-Benz", "E-Class"}, {"Audi", "A6"}}));
+
+    private static final String[] FIRST_NAMES = {"Ahmet", "Mehmet", "Ayşe", "Fatma", "Elif", "Can", "Deniz",
+            "Emre", "Zeynep", "Burak", "Selin", "Mert", "Ece", "Kerem", "Derya", "Oğuz"};
+    private static final String[] LAST_NAMES = {"Yılmaz", "Kaya", "Demir", "Şahin", "Çelik", "Yıldız", "Aydın",
+            "Öztürk", "Arslan", "Doğan", "Kılıç", "Aslan", "Koç", "Kurt"};
+    private static final String[] CITIES = {"Istanbul", "Ankara", "Izmir", "Antalya", "Bursa", "Adana", "Trabzon"};
+
+    // independent random streams, so adding a column to one table never shifts another
+    private static final long LOCATIONS = 1, CARS = 2, MEMBERS = 3, RESERVATIONS = 4;
+
+    private final long seed;
+    private final int locations;
+    private final int cars;
+    private final int members;
+    private final long reservations;
+    private final LocalDateTime timelineStart;
+    private final long timelineHours;
+    private final LocalDateTime anchor;
+
+    private final double[] locationWeights;
+    private final double[] categoryWeights;
+
+    public SyntheticDataset(long seed, int locations, int cars, int members, long reservations,
+                            LocalDateTime anchor, int pastDays, int futureDays) {
+        if (locations < 1 || cars < 1 || members < 1 || reservations < 0) {
+            throw new IllegalArgumentException("Need at least one location, car and member");
+        }
+        this.seed = seed;
+        this.locations = locations;
+        this.cars = cars;
+        this.members = members;
+        this.reservations = reservations;
+        this.anchor = anchor;
+        this.timelineStart = anchor.minusDays(pastDays);
+        this.timelineHours = (long) (pastDays + futureDays) * 24;
+
+        double[] weights = new double[locations];
+        for (int i = 0; i < locations; i++) {
+            weights[i] = 1.0 / Math.pow(i + 1, 0.8);
+        }
+        this.locationWeights = cumulative(weights);
+        this.categoryWeights = cumulative(CATEGORIES.stream().mapToDouble(Category::weight).toArray());
+    }
+
+    public int getLocations() {
+        return locations;
+    }
+
+    public int getCars() {
+        return cars;
+    }
+
+    public int getMembers() {
+        return members;
+    }
+
+    public LocalDateTime getAnchor() {
+        return anchor;
+    }
+
+    // -------------------------
+    // ROWS
+    // -------------------------
+
+    public Object[] location(int index) {
+        long id = index + 1L;
+        return new Object[]{id, String.format("L%04d", id), "Branch " + id};
+    }
+
+    public Object[] car(int index) {
+        SplittableRandom random = random(CARS, index);
+        long id = index + 1L;
+        Category category = CATEGORIES.get(pick(categoryWeights, random));
+        String[] model = category.models()[random.nextInt(category.models().length)];
+        String transmission = random.nextInt(100) < category.automaticPercent() ? "Automatic" : "Manual";
+        // +-20% around the category price, rounded to 10
+        double dailyPrice = Math.round(category.basePrice() * (0.8 + 0.4 * random.nextDouble()) / 10) * 10.0;
+        double mileage = Math.round(random.nextDouble() * 120_000);
+        long locationId = pick(locationWeights, random) + 1L;
+        return new Object[]{id, String.format("C%08d", id), String.format("GEN%07d", id), model[0], model[1],
+                category.seats(), mileage, transmission, dailyPrice, category.name(), "AVAILABLE", locationId};
+    }
+
+    public Object[] member(int index) {
+        SplittableRandom random = random(MEMBERS, index);
+        long id = index + 1L;
+        String name = FIRST_NAMES[random.nextInt(FIRST_NAMES.length)] + " "
+                + LAST_NAMES[random.nextInt(LAST_NAMES.length)];
+        String address = CITIES[random.nextInt(CITIES.length)] + ", Turkey";
+        String phone = String.format("+90555%07d", random.nextInt(10_000_000));
+        return new Object[]{id, name, address, "member" + id + "@example.com", phone, String.format("DL%09d", id)};
+    }
+
+    // Reservations of one car, in pickup order; ACTIVE and COMPLETED ones never overlap
+    public List<Object[]> reservationsForCar(int carIndex) {
+        long quota = reservationsOf(carIndex);
+        List<Object[]> rows = new ArrayList<>((int) quota);
+        if (quota == 0) {
+            return rows;
+        }
+        SplittableRandom random = random(RESERVATIONS, carIndex);
+        Object[] car = car(carIndex);
+        long carId = (Long) car[0];
+        long locationId = (Long) car[11];
+        double slotHours = (double) timelineHours / quota;
+
+        long id = firstReservationId(carIndex);
+        double cursor = slotHours * 0.5 * random.nextDouble();
+        for (long i = 0; i < quota; i++, id++) {
+            // a day plus an exponential tail (mean 4 days), capped so the car still fits its quota
+            long durationHours = 24 + (long) (-Math.log(1 - random.nextDouble()) * MEAN_EXTRA_RENTAL_HOURS);
+            durationHours = Math.max(4, Math.min(durationHours, (long) (slotHours * 0.9)));
+            LocalDateTime pickup = timelineStart.plusHours((long) cursor);
+            LocalDateTime dropoff = pickup.plusHours(durationHours);
+            long leadHours = (long) (-Math.log(1 - random.nextDouble()) * MEAN_LEAD_HOURS);
+            LocalDateTime creation = pickup.minusHours(Math.max(1, leadHours));
+
+            String status;
+            LocalDateTime returned = null;
+            if (random.nextInt(100) < CANCELLED_PERCENT) {
+                status = "CANCELLED";
+            } else if (!dropoff.isAfter(anchor)) {
+                status = "COMPLETED";
+                returned = dropoff.plusMinutes(random.nextInt(-120, 180));
+            } else {
+                status = "ACTIVE";
+            }
+            long memberId = (long) (members * Math.pow(random.nextDouble(), 2)) + 1;
+            long dropoffLocationId = random.nextInt(100) < ONE_WAY_PERCENT
+                    ? pick(locationWeights, random) + 1L
+                    : locationId;
+
+            rows.add(new Object[]{id, String.format("S%09d", id), creation, pickup, dropoff, returned, status,
+                    memberId, carId, locationId, dropoffLocationId, 0L});
+            // idle time averages out to the rest of the slot
+            cursor += durationHours + Math.max(0, slotHours - durationHours) * 2 * random.nextDouble();
+        }
+        return rows;
+    }
+
+    public long reservationsOf(int carIndex) {
+        return reservations / cars + (carIndex < reservations % cars ? 1 : 0);
+    }
+
+    public long firstReservationId(int carIndex) {
+        return carIndex * (reservations / cars) + Math.min(carIndex, reservations % cars) + 1;
+    }
+
+    // -------------------------
+    // INTERNAL
+    // -------------------------
+
+    private SplittableRandom random(long stream, long index) {
+        return new SplittableRandom(seed * 0x9E3779B97F4A7C15L ^ stream << 48 ^ index);
+    }
+
+    private static double[] cumulative(double[] weights) {
+        double[] cumulative = new double[weights.length];
+        double sum = 0;
+        for (int i = 0; i < weights.length; i++) {
+            sum += weights[i];
+            cumulative[i] = sum;
+        }
+        for (int i = 0; i < cumulative.length; i++) {
+            cumulative[i] /= sum;
+        }
+        return cumulative;
+    }
+
+    private static int pick(double[] cumulative, SplittableRandom random) {
+        int index = Arrays.binarySearch(cumulative, random.nextDouble());
+        return Math.min(index < 0 ? -index - 1 : index, cumulative.length - 1);
+    }
+}
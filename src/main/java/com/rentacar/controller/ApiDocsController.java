@@ -0,0 +1,61 @@
+package com.rentacar.controller;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.CacheControl;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.util.DigestUtils;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+/**
+ * Serves the OpenAPI document generated at build time (gradle generateOpenApiDocs) when springdoc's
+ * runtime scanning is off, i.e. outside the dev profile. The spec never changes for a given build,
+ * so clients revalidate with If-None-Match and get a 304.
+ */
+@RestController
+@ConditionalOnProperty(name = "springdoc.api-docs.enabled", havingValue = "false")
+public class ApiDocsController {
+
+    static final String SPEC_LOCATION = "openapi/openapi.json";
+
+    private final byte[] spec;
+    private final String etag;
+
+    public ApiDocsController() {
+        Resource resource = new ClassPathResource(SPEC_LOCATION);
+        if (resource.exists()) {
+            try {
+                this.spec = resource.getContentAsByteArray();
+            } catch (IOException e) {
+                throw new UncheckedIOException("Cannot read " + SPEC_LOCATION, e);
+            }
+            this.etag = "\"" + DigestUtils.md5DigestAsHex(spec) + "\"";
+        } else {
+            // Only the boot jar carries the spec; bootRun and tests do not
+            this.spec = null;
+            this.etag = null;
+        }
+    }
+
+    @GetMapping("/v3/api-docs")
+    public ResponseEntity<byte[]> getApiDocs(WebRequest request) {
+        if (spec == null) {
+            return ResponseEntity.notFound().build();
+        }
+        if (request.checkNotModified(etag)) {
+            return null;
+        }
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .cacheControl(CacheControl.noCache())
+                .eTag(etag)
+                .body(spec);
+    }
+}
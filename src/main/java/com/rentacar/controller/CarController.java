@@ -2,18 +2,33 @@ package com.rentacar.controller;
 
 import com.rentacar.dto.CarResponseDTO;
 import com.rentacar.dto.CarSearchRequestDTO;
+import com.rentacar.dto.QuoteRequestDTO;
+import com.rentacar.dto.QuoteResponseDTO;
+import com.rentacar.dto.RebalancingPlanDTO;
 import com.rentacar.dto.RentedCarDTO;
 import com.rentacar.service.CarService;
+import com.rentacar.service.FleetRebalancingService;
+import com.rentacar.service.FleetVersion;
+import com.rentacar.service.QuoteService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.HttpMediaTypeNotAcceptableException;
+import org.springframework.web.accept.ContentNegotiationManager;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.NativeWebRequest;
 
+import java.time.Duration;
 import java.util.List;
+import java.util.NoSuchElementException;
 
 @RestController
 @RequestMapping("/api/cars")
@@ -21,9 +36,22 @@ import java.util.List;
 public class CarController {
 
     private final CarService carService;
-
-    public CarController(CarService carService) {
+    private final FleetRebalancingService fleetRebalancingService;
+    private final QuoteService quoteService;
+    private final FleetVersion fleetVersion;
+    private final ContentNegotiationManager contentNegotiationManager;
+    private final long rentedEtagWindowMillis;
+
+    public CarController(CarService carService, FleetRebalancingService fleetRebalancingService,
+                         QuoteService quoteService, FleetVersion fleetVersion,
+                         ContentNegotiationManager contentNegotiationManager,
+                         @Value("${rentacar.http.rented-etag-window:1m}") Duration rentedEtagWindow) {
         this.carService = carService;
+        this.fleetRebalancingService = fleetRebalancingService;
+        this.quoteService = quoteService;
+        this.fleetVersion = fleetVersion;
+        this.contentNegotiationManager = contentNegotiationManager;
+        this.rentedEtagWindowMillis = rentedEtagWindow.toMillis();
     }
 
     @PostMapping("/search")
@@ -47,6 +75,62 @@ public class CarController {
         return ResponseEntity.ok(cars);
     }
 
+    @GetMapping("/search")
+    @Operation(
+            summary = "Search available cars (cacheable)",
+            description = "Same search with the filters as query parameters. Responses carry an ETag of the " +
+                    "fleet version; send it back in If-None-Match to get a 304 while nothing has changed."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Available cars found"),
+            @ApiResponse(responseCode = "304", description = "Fleet unchanged since the ETag was issued"),
+            @ApiResponse(responseCode = "404", description = "No available cars found")
+    })
+    public ResponseEntity<List<CarResponseDTO>> searchAvailableCars(
+            @ModelAttribute CarSearchRequestDTO request, NativeWebRequest webRequest) {
+
+        // read before the query: a change committed meanwhile yields a newer tag next time
+        String etag = fleetVersion.etag(representation(webRequest));
+        if (webRequest.checkNotModified(etag)) {
+            return notModified();
+        }
+
+        List<CarResponseDTO> cars = carService.searchAvailableCars(request);
+
+        if (cars.isEmpty()) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(cars);
+        }
+
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.noCache())
+                .eTag(etag)
+                .varyBy(HttpHeaders.ACCEPT)
+                .body(cars);
+    }
+
+    @PostMapping("/quotes")
+    @Operation(
+            summary = "Quote many cars over many date ranges",
+            description = "Price every requested car for every date range with the same extras in one call. " +
+                    "Row i of totalAmounts is carBarcodes[i], column j is dateRanges[j]."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Price matrix computed"),
+            @ApiResponse(responseCode = "400", description = "A date range is incomplete or not forward, an extra " +
+                    "is listed twice, or more than 10000 cars x date ranges are asked for"),
+            @ApiResponse(responseCode = "404", description = "An extra was not found")
+    })
+    public ResponseEntity<QuoteResponseDTO> quote(@RequestBody QuoteRequestDTO request) {
+
+        try {
+            return ResponseEntity.ok(quoteService.quote(request));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).build();
+        } catch (NoSuchElementException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).build();
+        }
+    }
+
     @GetMapping("/rented")
     @Operation(
             summary = "Get all rented cars",
@@ -54,9 +138,17 @@ public class CarController {
     )
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Rented cars found"),
+            @ApiResponse(responseCode = "304", description = "Fleet unchanged since the ETag was issued"),
             @ApiResponse(responseCode = "404", description = "No rented cars found")
     })
-    public ResponseEntity<List<RentedCarDTO>> getAllRentedCars() {
+    public ResponseEntity<List<RentedCarDTO>> getAllRentedCars(NativeWebRequest webRequest) {
+
+        // rentals also start and end as the clock moves, so the tag expires with its time window
+        String etag = fleetVersion.etag(representation(webRequest),
+                System.currentTimeMillis() / rentedEtagWindowMillis);
+        if (webRequest.checkNotModified(etag)) {
+            return notModified();
+        }
 
         List<RentedCarDTO> rentedCars = carService.getAllRentedCars();
 
@@ -64,7 +156,32 @@ public class CarController {
             return ResponseEntity.status(HttpStatus.NOT_FOUND).body(rentedCars);
         }
 
-        return ResponseEntity.ok(rentedCars);
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.noCache())
+                .eTag(etag)
+                .varyBy(HttpHeaders.ACCEPT)
+                .body(rentedCars);
+    }
+
+    @GetMapping("/rebalancing-plan")
+    @Operation(
+            summary = "Plan fleet rebalancing",
+            description = "Compute the car transfers between locations, per category, needed to cover " +
+                    "the pickups forecast within the horizon"
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Rebalancing plan computed"),
+            @ApiResponse(responseCode = "400", description = "Horizon outside 1..90 days")
+    })
+    public ResponseEntity<RebalancingPlanDTO> getRebalancingPlan(
+            @Parameter(description = "Planning horizon in days (1-90)", example = "7")
+            @RequestParam(defaultValue = "7") int horizonDays) {
+
+        try {
+            return ResponseEntity.ok(fleetRebalancingService.planRebalancing(horizonDays));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).build();
+        }
     }
 
     @DeleteMapping("/{barcode}")
@@ -99,4 +216,27 @@ public class CarController {
                     .body("An error occurred: " + e.getMessage());
         }
     }
-}
\ No newline at end of file
+
+    // The format the converters will write: the first acceptable type that JSON satisfies wins,
+    // as JSON is the first converter, otherwise CBOR
+    private String representation(NativeWebRequest webRequest) {
+        try {
+            for (MediaType acceptable : contentNegotiationManager.resolveMediaTypes(webRequest)) {
+                if (acceptable.isCompatibleWith(MediaType.APPLICATION_JSON)) {
+                    return "json";
+                }
+                if (acceptable.isCompatibleWith(MediaType.APPLICATION_CBOR)) {
+                    return "cbor";
+                }
+            }
+        } catch (HttpMediaTypeNotAcceptableException e) {
+            // unparseable Accept header: the request ends in a 406 either way
+        }
+        return "json";
+    }
+
+    // checkNotModified has set the status and the ETag; caches also need to know the tag depends on Accept
+    private static <T> ResponseEntity<T> notModified() {
+        return ResponseEntity.status(HttpStatus.NOT_MODIFIED).varyBy(HttpHeaders.ACCEPT).build();
+    }
+}
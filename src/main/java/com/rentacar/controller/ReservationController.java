@@ -1,5 +1,6 @@
 package com.rentacar.controller;
 
+import com.rentacar.dto.ReservationHistoryPageDTO;
 import com.rentacar.dto.ReservationRequestDTO;
 import com.rentacar.dto.ReservationResponseDTO;
 import com.rentacar.service.ReservationService;
@@ -8,10 +9,13 @@ import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.LocalDateTime;
+
 @RestController
 @RequestMapping("/api/reservations")
 @Tag(name = "Reservation Controller", description = "Operations related to reservations: create, return, cancel, extras, delete")
@@ -44,6 +48,32 @@ public class ReservationController {
         return ResponseEntity.ok(response);
     }
 
+    @GetMapping("/members/{memberId}/history")
+    @Operation(
+            summary = "Get member reservation history",
+            description = "Newest-first reservation history of a member. Pass nextCreationDate/nextId " +
+                    "from the previous page as beforeCreationDate/beforeId to fetch the next page."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "History page returned")
+    })
+    public ResponseEntity<ReservationHistoryPageDTO> getMemberReservationHistory(
+            @Parameter(description = "Member id", required = true, example = "1")
+            @PathVariable Long memberId,
+            @Parameter(description = "Creation date of the last reservation on the previous page")
+            @RequestParam(required = false)
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime beforeCreationDate,
+            @Parameter(description = "Id of the last reservation on the previous page")
+            @RequestParam(required = false) Long beforeId,
+            @Parameter(description = "Page size (max 100)", example = "20")
+            @RequestParam(defaultValue = "20") int size) {
+
+        ReservationHistoryPageDTO page = reservationService.getMemberReservationHistory(
+                memberId, beforeCreationDate, beforeId, size);
+
+        return ResponseEntity.ok(page);
+    }
+
     @PostMapping("/{reservationNumber}/return")
     @Operation(
             summary = "Return a car",
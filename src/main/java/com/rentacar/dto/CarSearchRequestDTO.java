@@ -1,5 +1,7 @@
 package com.rentacar.dto;
 
+import org.springframework.format.annotation.DateTimeFormat;
+
 import java.time.LocalDateTime;
 
 public class CarSearchRequestDTO {
@@ -10,7 +12,10 @@ public class CarSearchRequestDTO {
     private Double maxDailyPrice;
     private Integer numberOfSeats;
 
+    // ISO format also for GET /api/cars/search query parameters
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
     private LocalDateTime pickupDate;
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
     private LocalDateTime dropoffDate;
 
     private String pickupLocationCode;
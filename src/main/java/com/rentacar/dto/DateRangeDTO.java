@@ -0,0 +1,33 @@
+package com.rentacar.dto;
+
+import java.time.LocalDateTime;
+
+public class DateRangeDTO {
+
+    private LocalDateTime pickupDateTime;
+    private LocalDateTime dropoffDateTime;
+
+    public DateRangeDTO() {
+    }
+
+    public DateRangeDTO(LocalDateTime pickupDateTime, LocalDateTime dropoffDateTime) {
+        this.pickupDateTime = pickupDateTime;
+        this.dropoffDateTime = dropoffDateTime;
+    }
+
+    public LocalDateTime getPickupDateTime() {
+        return pickupDateTime;
+    }
+
+    public void setPickupDateTime(LocalDateTime pickupDateTime) {
+        this.pickupDateTime = pickupDateTime;
+    }
+
+    public LocalDateTime getDropoffDateTime() {
+        return dropoffDateTime;
+    }
+
+    public void setDropoffDateTime(LocalDateTime dropoffDateTime) {
+        this.dropoffDateTime = dropoffDateTime;
+    }
+}
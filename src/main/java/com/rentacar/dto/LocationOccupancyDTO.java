@@ -0,0 +1,61 @@
+package com.rentacar.dto;
+
+import java.util.Map;
+
+public class LocationOccupancyDTO {
+
+    private String locationCode;
+    private String locationName;
+    private Map<String, Long> carsByStatus;
+    private long totalCars;
+    private long upcomingPickups;
+    private long upcomingDropoffs;
+
+    public String getLocationCode() {
+        return locationCode;
+    }
+
+    public void setLocationCode(String locationCode) {
+        this.locationCode = locationCode;
+    }
+
+    public String getLocationName() {
+        return locationName;
+    }
+
+    public void setLocationName(String locationName) {
+        this.locationName = locationName;
+    }
+
+    public Map<String, Long> getCarsByStatus() {
+        return carsByStatus;
+    }
+
+    public void setCarsByStatus(Map<String, Long> carsByStatus) {
+        this.carsByStatus = carsByStatus;
+    }
+
+    public long getTotalCars() {
+        return totalCars;
+    }
+
+    public void setTotalCars(long totalCars) {
+        this.totalCars = totalCars;
+    }
+
+    public long getUpcomingPickups() {
+        return upcomingPickups;
+    }
+
+    public void setUpcomingPickups(long upcomingPickups) {
+        this.upcomingPickups = upcomingPickups;
+    }
+
+    public long getUpcomingDropoffs() {
+        return upcomingDropoffs;
+    }
+
+    public void setUpcomingDropoffs(long upcomingDropoffs) {
+        this.upcomingDropoffs = upcomingDropoffs;
+    }
+}
@@ -0,0 +1,34 @@
+package com.rentacar.dto;
+
+import java.util.List;
+
+public class QuoteRequestDTO {
+
+    private List<String> carBarcodes;
+    private List<DateRangeDTO> dateRanges;
+    private List<String> extraCodes;
+
+    public List<String> getCarBarcodes() {
+        return carBarcodes;
+    }
+
+    public void setCarBarcodes(List<String> carBarcodes) {
+        this.carBarcodes = carBarcodes;
+    }
+
+    public List<DateRangeDTO> getDateRanges() {
+        return dateRanges;
+    }
+
+    public void setDateRanges(List<DateRangeDTO> dateRanges) {
+        this.dateRanges = dateRanges;
+    }
+
+    public List<String> getExtraCodes() {
+        return extraCodes;
+    }
+
+    public void setExtraCodes(List<String> extraCodes) {
+        this.extraCodes = extraCodes;
+    }
+}
@@ -0,0 +1,44 @@
+package com.rentacar.dto;
+
+import java.util.List;
+
+public class QuoteResponseDTO {
+
+    // Row i of totalAmounts belongs to carBarcodes[i], column j to dateRanges[j]
+    private List<String> carBarcodes;
+    private List<DateRangeDTO> dateRanges;
+    private double[][] totalAmounts;
+    private List<String> notFoundBarcodes;
+
+    public List<String> getCarBarcodes() {
+        return carBarcodes;
+    }
+
+    public void setCarBarcodes(List<String> carBarcodes) {
+        this.carBarcodes = carBarcodes;
+    }
+
+    public List<DateRangeDTO> getDateRanges() {
+        return dateRanges;
+    }
+
+    public void setDateRanges(List<DateRangeDTO> dateRanges) {
+        this.dateRanges = dateRanges;
+    }
+
+    public double[][] getTotalAmounts() {
+        return totalAmounts;
+    }
+
+    public void setTotalAmounts(double[][] totalAmounts) {
+        this.totalAmounts = totalAmounts;
+    }
+
+    public List<String> getNotFoundBarcodes() {
+        return notFoundBarcodes;
+    }
+
+    public void setNotFoundBarcodes(List<String> notFoundBarcodes) {
+        this.notFoundBarcodes = notFoundBarcodes;
+    }
+}
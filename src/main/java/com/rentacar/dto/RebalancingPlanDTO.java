@@ -0,0 +1,53 @@
+package com.rentacar.dto;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public class RebalancingPlanDTO {
+
+    private LocalDateTime horizonStart;
+    private LocalDateTime horizonEnd;
+    private List<RebalancingTransferDTO> transfers;
+    private long totalCarsMoved;
+    private long unmetDemand;
+
+    public LocalDateTime getHorizonStart() {
+        return horizonStart;
+    }
+
+    public void setHorizonStart(LocalDateTime horizonStart) {
+        this.horizonStart = horizonStart;
+    }
+
+    public LocalDateTime getHorizonEnd() {
+        return horizonEnd;
+    }
+
+    public void setHorizonEnd(LocalDateTime horizonEnd) {
+        this.horizonEnd = horizonEnd;
+    }
+
+    public List<RebalancingTransferDTO> getTransfers() {
+        return transfers;
+    }
+
+    public void setTransfers(List<RebalancingTransferDTO> transfers) {
+        this.transfers = transfers;
+    }
+
+    public long getTotalCarsMoved() {
+        return totalCarsMoved;
+    }
+
+    public void setTotalCarsMoved(long totalCarsMoved) {
+        this.totalCarsMoved = totalCarsMoved;
+    }
+
+    public long getUnmetDemand() {
+        return unmetDemand;
+    }
+
+    public void setUnmetDemand(long unmetDemand) {
+        this.unmetDemand = unmetDemand;
+    }
+}
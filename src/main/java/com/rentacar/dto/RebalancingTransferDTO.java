@@ -0,0 +1,51 @@
+package com.rentacar.dto;
+
+public class RebalancingTransferDTO {
+
+    private String category;
+    private String fromLocationCode;
+    private String toLocationCode;
+    private long carCount;
+
+    public RebalancingTransferDTO() {
+    }
+
+    public RebalancingTransferDTO(String category, String fromLocationCode, String toLocationCode, long carCount) {
+        this.category = category;
+        this.fromLocationCode = fromLocationCode;
+        this.toLocationCode = toLocationCode;
+        this.carCount = carCount;
+    }
+
+    public String getCategory() {
+        return category;
+    }
+
+    public void setCategory(String category) {
+        this.category = category;
+    }
+
+    public String getFromLocationCode() {
+        return fromLocationCode;
+    }
+
+    public void setFromLocationCode(String fromLocationCode) {
+        this.fromLocationCode = fromLocationCode;
+    }
+
+    public String getToLocationCode() {
+        return toLocationCode;
+    }
+
+    public void setToLocationCode(String toLocationCode) {
+        this.toLocationCode = toLocationCode;
+    }
+
+    public long getCarCount() {
+        return carCount;
+    }
+
+    public void setCarCount(long carCount) {
+        this.carCount = carCount;
+    }
+}
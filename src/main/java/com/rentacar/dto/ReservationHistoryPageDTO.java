@@ -0,0 +1,44 @@
+package com.rentacar.dto;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public class ReservationHistoryPageDTO {
+
+    private List<ReservationResponseDTO> reservations;
+    private boolean hasMore;
+    private LocalDateTime nextCreationDate;
+    private Long nextId;
+
+    public List<ReservationResponseDTO> getReservations() {
+        return reservations;
+    }
+
+    public void setReservations(List<ReservationResponseDTO> reservations) {
+        this.reservations = reservations;
+    }
+
+    public boolean isHasMore() {
+        return hasMore;
+    }
+
+    public void setHasMore(boolean hasMore) {
+        this.hasMore = hasMore;
+    }
+
+    public LocalDateTime getNextCreationDate() {
+        return nextCreationDate;
+    }
+
+    public void setNextCreationDate(LocalDateTime nextCreationDate) {
+        this.nextCreationDate = nextCreationDate;
+    }
+
+    public Long getNextId() {
+        return nextId;
+    }
+
+    public void setNextId(Long nextId) {
+        this.nextId = nextId;
+    }
+}
@@ -2,10 +2,14 @@ package com.rentacar.model;
 
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import java.util.HashSet;
 import java.util.Set;
 
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "extras")
 @Table(name = "extras")
 @Getter
 @Setter
@@ -15,7 +19,7 @@ import java.util.Set;
 public class Extra {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @PooledSequence(name = "extras_seq")
     private Long id;
 
     @Column(nullable = false)
@@ -24,6 +28,11 @@ public class Extra {
     @Column(nullable = false)
     private Double price;
 
+    // Stable bit in Reservation.extrasMask; assigned on first use by ExtraRepository.assignBitPosition
+    // and never changed, so entity flushes leave the column alone
+    @Column(name = "bit_position", unique = true, updatable = false)
+    private Integer bitPosition;
+
     @ManyToMany(mappedBy = "extras")
     private Set<Reservation> reservations = new HashSet<>();
 
@@ -0,0 +1,40 @@
+package com.rentacar.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+@Entity
+@Table(name = "extra_stock", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_extra_stock_extra_location", columnNames = {"extra_id", "location_id"})
+})
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@ToString
+public class ExtraStock {
+
+    @Id
+    @PooledSequence(name = "extra_stock_seq")
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "extra_id", nullable = false)
+    @ToString.Exclude
+    private Extra extra;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "location_id", nullable = false)
+    @ToString.Exclude
+    private Location location;
+
+    // Units available per day at this location
+    @Column(nullable = false)
+    private Integer quantity;
+
+    public ExtraStock(Extra extra, Location location, Integer quantity) {
+        this.extra = extra;
+        this.location = location;
+        this.quantity = quantity;
+    }
+}
@@ -15,7 +15,7 @@ import java.util.List;
 public class Member {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @PooledSequence(name = "members_seq")
     private Long id;
 
     @Column(nullable = false)
@@ -0,0 +1,23 @@
+package com.rentacar.model;
+
+import org.hibernate.annotations.IdGeneratorType;
+
+import java.lang.annotation.Retention;
+import java.lang.annotation.Target;
+
+import static java.lang.annotation.ElementType.FIELD;
+import static java.lang.annotation.RetentionPolicy.RUNTIME;
+
+/**
+ * Sequence-backed id with the pooled optimizer. Unlike IDENTITY, ids are known before the
+ * INSERT runs, so Hibernate can batch inserts; the allocation size comes from the
+ * {@value PooledSequenceGenerator#ALLOCATION_SIZE} setting.
+ */
+@IdGeneratorType(PooledSequenceGenerator.class)
+@Retention(RUNTIME)
+@Target(FIELD)
+public @interface PooledSequence {
+
+    // Sequence name in the database
+    String name();
+}
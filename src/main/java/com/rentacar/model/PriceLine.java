@@ -0,0 +1,19 @@
+package com.rentacar.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+@Embeddable
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@ToString
+public class PriceLine {
+
+    @Column(nullable = false)
+    private String description;
+
+    @Column(name = "amount_minor", nullable = false)
+    private Long amountMinor;
+}
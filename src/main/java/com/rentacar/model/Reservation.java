@@ -2,12 +2,15 @@ package com.rentacar.model;
 
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.BatchSize;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
 
 @Entity
-@Table(name = "reservations")
+@Table(name = "reservations", indexes = {
+        @Index(name = "idx_reservations_member_history", columnList = "member_id, creation_date, id")
+})
 @Getter
 @Setter
 @NoArgsConstructor
@@ -16,7 +19,7 @@ import java.util.List;
 public class Reservation {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @PooledSequence(name = "reservations_seq")
     private Long id;
 
     @Column(name = "reservation_number", unique = true, nullable = false)
@@ -54,7 +57,9 @@ public class Reservation {
     @JoinColumn(name = "dropoff_location_id", nullable = false)
     private Location dropoffLocation;
 
+    // Rows without a price snapshot reprice from their extras; a history page loads them in one go
     @ManyToMany(fetch = FetchType.LAZY)
+    @BatchSize(size = 100)
     @JoinTable(
             name = "reservation_extras",
             joinColumns = @JoinColumn(name = "reservation_id"),
@@ -62,6 +67,25 @@ public class Reservation {
     )
     private List<Extra> extras = new ArrayList<>();
 
+    // Extras encoded by Extra.bitPosition; kept in sync with the extras join table
+    @Column(name = "extras_mask", nullable = false)
+    private Long extrasMask = 0L;
+
+    // Price snapshot taken at booking in minor units; reads use it instead of repricing
+    @Column(name = "car_price_minor")
+    private Long carPriceMinor;
+
+    @Column(name = "extras_price_minor")
+    private Long extrasPriceMinor;
+
+    @Column(name = "total_price_minor")
+    private Long totalPriceMinor;
+
+    @ElementCollection(fetch = FetchType.LAZY)
+    @CollectionTable(name = "reservation_price_lines", joinColumns = @JoinColumn(name = "reservation_id"))
+    @OrderColumn(name = "line_no")
+    private List<PriceLine> priceLines = new ArrayList<>();
+
     public long getDayCount() {
         return java.time.Duration.between(pickupDate, dropoffDate).toDays();
     }
@@ -1,20 +1,21 @@
 package com.rentacar.repository;
 
 import com.rentacar.model.Car;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 public interface CarRepository extends JpaRepository<Car, Long> {
-    Optional<Car> findByBarcode(String barcode);
-    List<Car> findByStatus(String status);
-    List<Car> findByLocationCode(String locationCode);
-    List<Car> findByCategory(String category);
 
-    @Query("SELECT c FROM Car c WHERE c.status = 'AVAILABLE' AND " +
+    // Shared by the entity and the projection search
+    String AVAILABLE_CAR_FILTER = "c.status = 'AVAILABLE' AND " +
             "c.location.code = :locationCode AND " +
             "(:category IS NULL OR c.category = :category) AND " +
             "(:transmissionType IS NULL OR c.transmissionType = :transmissionType) AND " +
@@ -23,7 +24,18 @@ public interface CarRepository extends JpaRepository<Car, Long> {
             "(:minPrice IS NULL OR c.dailyPrice >= :minPrice) AND " +
             "NOT EXISTS (SELECT r FROM Reservation r WHERE r.car = c AND " +
             "r.status = 'ACTIVE' AND " +
-            "((r.pickupDate <= :dropoffDate AND r.dropoffDate >= :pickupDate)))")
+            "((r.pickupDate <= :dropoffDate AND r.dropoffDate >= :pickupDate)))";
+
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = "cars-by-barcode")
+    })
+    Optional<Car> findByBarcode(String barcode);
+    List<Car> findByStatus(String status);
+    List<Car> findByLocationCode(String locationCode);
+    List<Car> findByCategory(String category);
+
+    @Query("SELECT c FROM Car c WHERE " + AVAILABLE_CAR_FILTER)
     List<Car> findAvailableCars(@Param("pickupDate") LocalDateTime pickupDate,
                                 @Param("dropoffDate") LocalDateTime dropoffDate,
                                 @Param("locationCode") String locationCode,
@@ -33,6 +45,18 @@ public interface CarRepository extends JpaRepository<Car, Long> {
                                 @Param("minPrice") Double minPrice,
                                 @Param("maxPrice") Double maxPrice);
 
+    // barcode, brand, model, category, transmissionType, numberOfSeats, dailyPrice, location id, location name
+    @Query("SELECT c.barcode, c.brand, c.model, c.category, c.transmissionType, c.numberOfSeats, " +
+            "c.dailyPrice, c.location.id, c.location.name FROM Car c WHERE " + AVAILABLE_CAR_FILTER)
+    List<Object[]> findAvailableCarRows(@Param("pickupDate") LocalDateTime pickupDate,
+                                        @Param("dropoffDate") LocalDateTime dropoffDate,
+                                        @Param("locationCode") String locationCode,
+                                        @Param("category") String category,
+                                        @Param("transmissionType") String transmissionType,
+                                        @Param("minSeats") Integer minSeats,
+                                        @Param("minPrice") Double minPrice,
+                                        @Param("maxPrice") Double maxPrice);
+
     @Query("SELECT c FROM Car c WHERE c.status = 'AVAILABLE' AND c.location.code = :locationCode")
     List<Car> findAvailableCarsAtLocation(@Param("locationCode") String locationCode);
 
@@ -41,9 +65,33 @@ public interface CarRepository extends JpaRepository<Car, Long> {
 
     @Query("SELECT c FROM Car c JOIN Reservation r ON c.id = r.car.id " +
             "WHERE r.status = 'ACTIVE' AND CURRENT_TIMESTAMP BETWEEN r.pickupDate AND r.dropoffDate")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"))
     List<Car> findCurrentlyRentedCars();
+
+    @Query("SELECT c.location.id, c.status, COUNT(c) FROM Car c " +
+            "WHERE c.location IS NOT NULL GROUP BY c.location.id, c.status")
+    List<Object[]> countByLocationAndStatus();
+
+    @Query("SELECT c.barcode, c.dailyPrice, c.category, l.id FROM Car c LEFT JOIN c.location l " +
+            "WHERE c.barcode IN :barcodes")
+    List<Object[]> findPricingByBarcodeIn(@Param("barcodes") Collection<String> barcodes);
+
+    @Query("SELECT c.location.id, c.category, COUNT(c) FROM Car c " +
+            "WHERE c.location IS NOT NULL GROUP BY c.location.id, c.category")
+    List<Object[]> countByLocationIdAndCategory();
+
+    @Query("SELECT c.location.code, c.category, COUNT(c) FROM Car c " +
+            "WHERE c.location IS NOT NULL GROUP BY c.location.code, c.category")
+    List<Object[]> countByLocationCodeAndCategory();
+
+    // Only called from readOnly list endpoints: no loaded-state snapshots, no dirty checking at flush.
+    // Finders that may join a read-write transaction stay managed, so later changes are flushed
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"))
     List<Car> findByTransmissionType(String transmissionType);
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"))
     List<Car> findByBrand(String brand);
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"))
     List<Car> findByNumberOfSeatsGreaterThanEqual(Integer minSeats);
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"))
     List<Car> findByDailyPriceBetween(Double minPrice, Double maxPrice);
 }
\ No newline at end of file
@@ -1,10 +1,38 @@
 package com.rentacar.repository;
 
 import com.rentacar.model.Extra;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 public interface ExtraRepository extends JpaRepository<Extra, Long> {
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = "extras-by-name")
+    })
     Optional<Extra> findByName(String name);
     Optional<Extra> findById(Long id);
+    List<Extra> findByNameIn(Collection<String> names);
+
+    @Query("SELECT e.bitPosition FROM Extra e WHERE e.bitPosition IS NOT NULL")
+    List<Integer> findUsedBitPositions();
+
+    List<Extra> findByBitPositionIn(Collection<Integer> bitPositions);
+
+    @Query("SELECT e.bitPosition FROM Extra e WHERE e.id = :id")
+    Integer findBitPositionById(@Param("id") Long id);
+
+    // 0 when the extra already has a bit; the row lock makes a concurrent assigner wait and re-check
+    @Transactional
+    @Modifying
+    @Query("UPDATE Extra e SET e.bitPosition = :bit WHERE e.id = :id AND e.bitPosition IS NULL")
+    int assignBitPosition(@Param("id") Long id, @Param("bit") int bit);
 }
\ No newline at end of file
@@ -0,0 +1,11 @@
+package com.rentacar.repository;
+
+import com.rentacar.model.ExtraStock;
+import org.springframework.data.jpa.repository.JpaRepository;
+import java.util.Optional;
+
+public interface ExtraStockRepository extends JpaRepository<ExtraStock, Long> {
+    Optional<ExtraStock> findByExtraIdAndLocationId(Long extraId, Long locationId);
+    void deleteByExtraId(Long extraId);
+    void deleteByLocationId(Long locationId);
+}
@@ -1,9 +1,16 @@
 package com.rentacar.repository;
 
 import com.rentacar.model.Location;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
 import java.util.Optional;
 
 public interface LocationRepository extends JpaRepository<Location, Long> {
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = "locations-by-code")
+    })
     Optional<Location> findByCode(String code);
 }
\ No newline at end of file
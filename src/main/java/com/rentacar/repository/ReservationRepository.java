@@ -2,8 +2,12 @@ package com.rentacar.repository;
 
 import com.rentacar.model.Reservation;
 import com.rentacar.model.ReservationStatus;
+import org.springframework.data.domain.Limit;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import java.time.LocalDateTime;
 import java.util.List;
@@ -18,8 +22,15 @@ public interface ReservationRepository extends JpaRepository<Reservation, Long>
 
     @Query("SELECT r FROM Reservation r WHERE r.status = 'ACTIVE' AND " +
             "CURRENT_TIMESTAMP BETWEEN r.pickupDate AND r.dropoffDate")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"))
     List<Reservation> findCurrentlyActiveReservations();
 
+    // Rentals in progress with everything the rented-cars view shows, in one statement
+    @Query("SELECT r FROM Reservation r JOIN FETCH r.car JOIN FETCH r.member LEFT JOIN FETCH r.dropoffLocation " +
+            "WHERE r.status = 'ACTIVE' AND CURRENT_TIMESTAMP BETWEEN r.pickupDate AND r.dropoffDate")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"))
+    List<Reservation> findCurrentRentals();
+
     @Query("SELECT COUNT(r) > 0 FROM Reservation r WHERE r.car.id = :carId AND " +
             "r.status = 'ACTIVE' AND " +
             "((r.pickupDate <= :dropoffDate AND r.dropoffDate >= :pickupDate))")
@@ -29,6 +40,75 @@ public interface ReservationRepository extends JpaRepository<Reservation, Long>
 
     List<Reservation> findByCarId(Long carId);
     List<Reservation> findByMemberId(Long memberId);
+
+    boolean existsByExtrasId(Long extraId);
+
+    boolean existsByMemberIdAndStatus(Long memberId, ReservationStatus status);
+
+    // Keyset pagination over (member_id, creation_date, id), newest first
+    @Query("SELECT r FROM Reservation r " +
+            "JOIN FETCH r.car JOIN FETCH r.member " +
+            "JOIN FETCH r.pickupLocation JOIN FETCH r.dropoffLocation " +
+            "WHERE r.member.id = :memberId " +
+            "ORDER BY r.creationDate DESC, r.id DESC")
+    List<Reservation> findHistoryByMemberId(@Param("memberId") Long memberId, Limit limit);
+
+    @Query("SELECT r FROM Reservation r " +
+            "JOIN FETCH r.car JOIN FETCH r.member " +
+            "JOIN FETCH r.pickupLocation JOIN FETCH r.dropoffLocation " +
+            "WHERE r.member.id = :memberId AND " +
+            "(r.creationDate < :creationDate OR (r.creationDate = :creationDate AND r.id < :id)) " +
+            "ORDER BY r.creationDate DESC, r.id DESC")
+    List<Reservation> findHistoryByMemberIdBefore(@Param("memberId") Long memberId,
+                                                  @Param("creationDate") LocalDateTime creationDate,
+                                                  @Param("id") Long id,
+                                                  Limit limit);
     List<Reservation> findByPickupLocationCode(String locationCode);
     List<Reservation> findByDropoffLocationCode(String locationCode);
-}
\ No newline at end of file
+
+    // ACTIVE reservations whose pickup is still ahead
+    @Query("SELECT r.pickupLocation.id, COUNT(r) FROM Reservation r " +
+            "WHERE r.status = 'ACTIVE' AND r.pickupDate >= :from GROUP BY r.pickupLocation.id")
+    List<Object[]> countActiveByPickupLocation(@Param("from") LocalDateTime from);
+
+    @Query("SELECT r.dropoffLocation.id, COUNT(r) FROM Reservation r " +
+            "WHERE r.status = 'ACTIVE' AND r.dropoffDate >= :from GROUP BY r.dropoffLocation.id")
+    List<Object[]> countActiveByDropoffLocation(@Param("from") LocalDateTime from);
+
+    @Query("SELECT r.pickupLocation.id, COUNT(r) FROM Reservation r GROUP BY r.pickupLocation.id")
+    List<Object[]> countAllByPickupLocation();
+
+    @Query("SELECT r.dropoffLocation.id, COUNT(r) FROM Reservation r GROUP BY r.dropoffLocation.id")
+    List<Object[]> countAllByDropoffLocation();
+
+    // Cars currently out on rental, grouped by the location their Car row still points at
+    // (the pickup location until the return moves it) so they net off countByLocationCodeAndCategory
+    @Query("SELECT r.car.location.code, r.car.category, COUNT(r) FROM Reservation r " +
+            "WHERE r.status = 'ACTIVE' AND r.pickupDate < :now " +
+            "GROUP BY r.car.location.code, r.car.category")
+    List<Object[]> countCarsOutByLocationAndCategory(@Param("now") LocalDateTime now);
+
+    // (location code, category, day, count)
+    @Query("SELECT r.pickupLocation.code, r.car.category, CAST(r.pickupDate AS LocalDate), COUNT(r) " +
+            "FROM Reservation r " +
+            "WHERE r.status = 'ACTIVE' AND r.pickupDate >= :from AND r.pickupDate < :to " +
+            "GROUP BY r.pickupLocation.code, r.car.category, CAST(r.pickupDate AS LocalDate)")
+    List<Object[]> countPickupsByLocationCategoryAndDay(@Param("from") LocalDateTime from,
+                                                        @Param("to") LocalDateTime to);
+
+    @Query("SELECT r.dropoffLocation.code, r.car.category, CAST(r.dropoffDate AS LocalDate), COUNT(r) " +
+            "FROM Reservation r " +
+            "WHERE r.status = 'ACTIVE' AND r.dropoffDate >= :from AND r.dropoffDate < :to " +
+            "GROUP BY r.dropoffLocation.code, r.car.category, CAST(r.dropoffDate AS LocalDate)")
+    List<Object[]> countDropoffsByLocationCategoryAndDay(@Param("from") LocalDateTime from,
+                                                         @Param("to") LocalDateTime to);
+
+    @Query("SELECT e.id, r.pickupLocation.id, r.pickupDate, r.dropoffDate " +
+            "FROM Reservation r JOIN r.extras e " +
+            "WHERE r.status = 'ACTIVE' AND r.dropoffDate >= :from")
+    List<Object[]> findActiveExtraBookings(@Param("from") LocalDateTime from);
+
+    @Query("SELECT r.pickupLocation.id, r.car.category, r.pickupDate, r.dropoffDate " +
+            "FROM Reservation r WHERE r.status = 'ACTIVE' AND r.dropoffDate >= :from")
+    List<Object[]> findActiveBookingsByLocationAndCategory(@Param("from") LocalDateTime from);
+}
@@ -0,0 +1,18 @@
+package com.rentacar.service;
+
+import java.time.LocalDateTime;
+
+// A booking occupies the days [pickup day, dropoff day); a same-day rental still occupies its pickup day
+final class BookingDays {
+
+    private BookingDays() {
+    }
+
+    static long firstDay(LocalDateTime pickup) {
+        return pickup.toLocalDate().toEpochDay();
+    }
+
+    static long lastDay(LocalDateTime pickup, LocalDateTime dropoff) {
+        return Math.max(firstDay(pickup), dropoff.toLocalDate().toEpochDay() - 1);
+    }
+}
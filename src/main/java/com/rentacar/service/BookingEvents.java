@@ -0,0 +1,68 @@
+package com.rentacar.service;
+
+import jdk.jfr.*;
+
+/**
+ * JDK Flight Recorder events for the booking and search paths. Recorded by the continuous
+ * recording (see ContinuousRecording) or any JFR session started with jcmd; when no recording
+ * has them enabled, begin/commit are no-ops.
+ */
+public final class BookingEvents {
+
+    public static final String SEARCH = "com.rentacar.Search";
+    public static final String RESERVATION = "com.rentacar.Reservation";
+    public static final String RESERVATION_PHASE = "com.rentacar.ReservationPhase";
+
+    private BookingEvents() {
+    }
+
+    @Name(SEARCH)
+    @Label("Car Search")
+    @Category({"Rent a Car", "Booking"})
+    @Description("CarService.searchAvailableCars: availability query and DTO mapping")
+    public static class Search extends Event {
+
+        @Label("Pickup Location")
+        String pickupLocationCode;
+
+        @Label("Category")
+        String category;
+
+        @Label("Results")
+        int results;
+    }
+
+    @Name(RESERVATION)
+    @Label("Reservation")
+    @Category({"Rent a Car", "Booking"})
+    @Description("ReservationService.makeReservation, from car lookup to save")
+    public static class Reservation extends Event {
+
+        @Label("Car Id")
+        long carId;
+
+        @Label("Reservation Number")
+        String reservationNumber;
+
+        @Label("Booked")
+        boolean booked;
+    }
+
+    @Name(RESERVATION_PHASE)
+    @Label("Reservation Phase")
+    @Category({"Rent a Car", "Booking"})
+    @Description("One phase of makeReservation: lookup, conflict-check, number or save")
+    @StackTrace(false)
+    public static class ReservationPhase extends Event {
+
+        @Label("Phase")
+        String phase;
+    }
+
+    static ReservationPhase phase(String name) {
+        ReservationPhase event = new ReservationPhase();
+        event.phase = name;
+        event.begin();
+        return event;
+    }
+}
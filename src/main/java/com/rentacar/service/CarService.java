@@ -4,8 +4,8 @@ import com.rentacar.dto.CarResponseDTO;
 import com.rentacar.dto.CarSearchRequestDTO;
 import com.rentacar.dto.RentedCarDTO;
 import com.rentacar.model.Car;
+import com.rentacar.model.Location;
 import com.rentacar.model.Reservation;
-import com.rentacar.model.ReservationStatus;
 import com.rentacar.repository.CarRepository;
 import com.rentacar.repository.ReservationRepository;
 import lombok.RequiredArgsConstructor;
@@ -13,8 +13,8 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
-import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
@@ -23,31 +23,44 @@ public class CarService {
 
     private final CarRepository carRepository;
     private final ReservationRepository reservationRepository;
+    private final LocationCounters locationCounters;
+    private final DynamicPricing dynamicPricing;
 
     // -------------------------
     // BASIC CAR OPERATIONS
     // -------------------------
 
+    @Transactional(readOnly = true)
     public List<Car> getAllCars() {
         return carRepository.findAll();
     }
 
+    @Transactional(readOnly = true)
     public Car getCarById(Long id) {
         return carRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Car not found with id: " + id));
     }
 
+    @Transactional(readOnly = true)
     public Car getCarByBarcode(String barcode) {
         return carRepository.findByBarcode(barcode)
                 .orElseThrow(() -> new RuntimeException("Car not found with barcode: " + barcode));
     }
 
     public Car saveCar(Car car) {
-        return carRepository.save(car);
+        boolean isNew = car.getId() == null;
+        Car saved = carRepository.save(car);
+        if (isNew) {
+            locationCounters.carAdded(saved.getLocation(), saved.getStatus());
+        }
+        return saved;
     }
 
     public Car updateCar(Long id, Car carDetails) {
         Car car = getCarById(id);
+        Location oldLocation = car.getLocation();
+        String oldStatus = car.getStatus();
+
         car.setBarcode(carDetails.getBarcode());
         car.setLicensePlate(carDetails.getLicensePlate());
         car.setBrand(carDetails.getBrand());
@@ -59,6 +72,8 @@ public class CarService {
         car.setCategory(carDetails.getCategory());
         car.setStatus(carDetails.getStatus());
         car.setLocation(carDetails.getLocation());
+
+        locationCounters.carChanged(oldLocation, oldStatus, car.getLocation(), car.getStatus());
         return carRepository.save(car);
     }
 
@@ -66,6 +81,7 @@ public class CarService {
     // SEARCH AVAILABLE CARS (OLD VERSION)
     // -------------------------
 
+    @Transactional(readOnly = true)
     public List<Car> searchAvailableCars(LocalDateTime pickupDate, LocalDateTime dropoffDate,
                                          String category, String transmissionType,
                                          Double minPrice, Double maxPrice,
@@ -87,9 +103,14 @@ public class CarService {
     // SEARCH AVAILABLE CARS (DTO VERSION - USED BY CONTROLLER)
     // -------------------------
 
+    @Transactional(readOnly = true)
     public List<CarResponseDTO> searchAvailableCars(CarSearchRequestDTO request) {
 
-        List<Car> cars = carRepository.findAvailableCars(
+        BookingEvents.Search event = new BookingEvents.Search();
+        event.begin();
+
+        // Projection: no Car or Location entities enter the persistence context
+        List<Object[]> rows = carRepository.findAvailableCarRows(
                 request.getPickupDate(),
                 request.getDropoffDate(),
                 request.getPickupLocationCode(),
@@ -100,22 +121,28 @@ public class CarService {
                 request.getMaxDailyPrice()
         );
 
-        return cars.stream().map(car -> {
+        List<CarResponseDTO> result = new ArrayList<>(rows.size());
+        for (Object[] row : rows) {
             CarResponseDTO dto = new CarResponseDTO();
-            dto.setBarcode(car.getBarcode());
-            dto.setBrand(car.getBrand());
-            dto.setModel(car.getModel());
-            dto.setCategory(car.getCategory());
-            dto.setTransmissionType(car.getTransmissionType());
-            dto.setDailyPrice(car.getDailyPrice());
-            dto.setNumberOfSeats(car.getNumberOfSeats());
-
-            if (car.getLocation() != null) {
-                dto.setLocationName(car.getLocation().getName());
-            }
+            dto.setBarcode((String) row[0]);
+            dto.setBrand((String) row[1]);
+            dto.setModel((String) row[2]);
+            dto.setCategory((String) row[3]);
+            dto.setTransmissionType((String) row[4]);
+            dto.setNumberOfSeats((Integer) row[5]);
+            dto.setDailyPrice(dynamicPricing.adjustDailyPrice(
+                    (Double) row[6], (Long) row[7], (String) row[3], request.getPickupDate()));
+            dto.setLocationName((String) row[8]);
+            result.add(dto);
+        }
 
-            return dto;
-        }).collect(Collectors.toList());
+        if (event.shouldCommit()) {
+            event.pickupLocationCode = request.getPickupLocationCode();
+            event.category = request.getCategory();
+            event.results = result.size();
+            event.commit();
+        }
+        return result;
     }
 
     // -------------------------
@@ -131,6 +158,7 @@ public class CarService {
         }
 
         carRepository.delete(car);
+        locationCounters.carRemoved(car.getLocation(), car.getStatus());
         return true;
     }
 
@@ -145,6 +173,7 @@ public class CarService {
         }
 
         carRepository.delete(car);
+        locationCounters.carRemoved(car.getLocation(), car.getStatus());
         return true;
     }
 
@@ -152,36 +181,44 @@ public class CarService {
     // ADDITIONAL FILTER METHODS (BONUS)
     // -------------------------
 
+    @Transactional(readOnly = true)
     public List<Car> getAvailableCars() {
         return carRepository.findByStatus("AVAILABLE");
     }
 
+    @Transactional(readOnly = true)
     public List<Car> getCarsByLocation(String locationCode) {
         return carRepository.findByLocationCode(locationCode);
     }
 
+    @Transactional(readOnly = true)
     public List<Car> getCarsByCategory(String category) {
         return carRepository.findByCategory(category);
     }
 
+    @Transactional(readOnly = true)
     public List<Car> getCarsByTransmissionType(String transmissionType) {
         return carRepository.findByTransmissionType(transmissionType);
     }
 
+    @Transactional(readOnly = true)
     public List<Car> getCarsByBrand(String brand) {
         return carRepository.findByBrand(brand);
     }
 
+    @Transactional(readOnly = true)
     public List<Car> getCarsBySeats(Integer minSeats) {
         return carRepository.findByNumberOfSeatsGreaterThanEqual(minSeats);
     }
 
+    @Transactional(readOnly = true)
     public List<Car> getCarsByPriceRange(Double minPrice, Double maxPrice) {
         return carRepository.findByDailyPriceBetween(minPrice, maxPrice);
     }
 
     public Car updateCarStatus(Long id, String status) {
         Car car = getCarById(id);
+        locationCounters.carChanged(car.getLocation(), car.getStatus(), car.getLocation(), status);
         car.setStatus(status);
         return carRepository.save(car);
     }
@@ -190,26 +227,20 @@ public class CarService {
     // RENTED CARS
     // -------------------------
 
+    @Transactional(readOnly = true)
     public List<Car> getCurrentlyRentedCars() {
         return carRepository.findCurrentlyRentedCars();
     }
 
+    // One statement: rentals come with their car, member and drop-off location fetched
+    @Transactional(readOnly = true)
     public List<RentedCarDTO> getAllRentedCars() {
 
-        List<Car> rentedCars = carRepository.findCurrentlyRentedCars();
+        List<Reservation> rentals = reservationRepository.findCurrentRentals();
 
-        return rentedCars.stream().map(car -> {
-
-            Reservation activeReservation = reservationRepository.findByCarId(car.getId()).stream()
-                    .filter(r -> r.getStatus() == ReservationStatus.ACTIVE &&
-                            LocalDateTime.now().isAfter(r.getPickupDate()) &&
-                            LocalDateTime.now().isBefore(r.getDropoffDate()))
-                    .findFirst()
-                    .orElse(null);
-
-            if (activeReservation == null) {
-                return null;
-            }
+        List<RentedCarDTO> result = new ArrayList<>(rentals.size());
+        for (Reservation rental : rentals) {
+            Car car = rental.getCar();
 
             RentedCarDTO dto = new RentedCarDTO();
             dto.setBrand(car.getBrand());
@@ -217,23 +248,25 @@ public class CarService {
             dto.setCarType(car.getCategory());
             dto.setTransmissionType(car.getTransmissionType());
             dto.setBarcode(car.getBarcode());
-            dto.setReservationNumber(activeReservation.getReservationNumber());
-            dto.setMemberName(activeReservation.getMember().getName());
-            dto.setDropoffDateTime(activeReservation.getDropoffDate());
-            dto.setReservationDayCount(activeReservation.getDayCount());
+            dto.setReservationNumber(rental.getReservationNumber());
+            dto.setMemberName(rental.getMember().getName());
+            dto.setDropoffDateTime(rental.getDropoffDate());
+            dto.setReservationDayCount(rental.getDayCount());
 
-            if (activeReservation.getDropoffLocation() != null) {
-                dto.setDropoffLocation(activeReservation.getDropoffLocation().getName());
+            if (rental.getDropoffLocation() != null) {
+                dto.setDropoffLocation(rental.getDropoffLocation().getName());
             }
 
-            return dto;
-        }).filter(dto -> dto != null).collect(Collectors.toList());
+            result.add(dto);
+        }
+        return result;
     }
 
     // -------------------------
     // AVAILABILITY CHECK
     // -------------------------
 
+    @Transactional(readOnly = true)
     public boolean isCarAvailableForDates(Long carId, LocalDateTime pickup, LocalDateTime dropoff) {
 
         Car car = getCarById(carId);
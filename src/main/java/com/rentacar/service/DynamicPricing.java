@@ -0,0 +1,67 @@
+package com.rentacar.service;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Utilization-based daily price multiplier. The curve maps a minimum utilization percentage
+ * to a multiplier in basis points; evaluation is two map lookups in {@link OccupancyCounters}
+ * and a scan over a handful of thresholds.
+ */
+public final class DynamicPricing {
+
+    private final boolean enabled;
+    private final int[] thresholds;
+    private final int[] multipliers;
+    private final OccupancyCounters counters;
+
+    public DynamicPricing(boolean enabled, Map<Integer, Integer> utilizationCurve, OccupancyCounters counters) {
+        TreeMap<Integer, Integer> sorted = new TreeMap<>(utilizationCurve);
+        this.thresholds = new int[sorted.size()];
+        this.multipliers = new int[sorted.size()];
+        int i = 0;
+        for (Map.Entry<Integer, Integer> point : sorted.entrySet()) {
+            if (point.getValue() == null || point.getValue() <= 0) {
+                throw new IllegalArgumentException("Invalid utilization multiplier: " + point.getValue());
+            }
+            thresholds[i] = point.getKey();
+            multipliers[i] = point.getValue();
+            i++;
+        }
+        this.enabled = enabled && thresholds.length > 0;
+        this.counters = counters;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public int multiplierBps(Long locationId, String category, long epochDay) {
+        if (!enabled || locationId == null) {
+            return PricingRules.BASE_BPS;
+        }
+        int utilization = counters.utilizationPercent(locationId, category, epochDay);
+        if (utilization < 0) {
+            return PricingRules.BASE_BPS;
+        }
+        for (int i = thresholds.length - 1; i >= 0; i--) {
+            if (utilization >= thresholds[i]) {
+                return multipliers[i];
+            }
+        }
+        return PricingRules.BASE_BPS;
+    }
+
+    public long adjustDailyMinor(long dailyPriceMinor, Long locationId, String category, long epochDay) {
+        return PricingEngine.applyBps(dailyPriceMinor, multiplierBps(locationId, category, epochDay));
+    }
+
+    public Double adjustDailyPrice(Double dailyPrice, Long locationId, String category, LocalDateTime pickup) {
+        if (!enabled || dailyPrice == null || pickup == null) {
+            return dailyPrice;
+        }
+        long epochDay = pickup.toLocalDate().toEpochDay();
+        return Money.toMajor(adjustDailyMinor(Money.toMinor(dailyPrice), locationId, category, epochDay));
+    }
+}
@@ -0,0 +1,219 @@
+package com.rentacar.service;
+
+import com.rentacar.model.Extra;
+import com.rentacar.repository.ExtraRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Maps extras to stable bit positions so a reservation's extras fit in one long column,
+ * and keeps a bit-indexed price table so the mask can be priced without touching the
+ * reservation_extras join table. Only "bitmask" mode assigns bits and fills the mask, and it
+ * only changes how prices are read: reservation_extras is written in both modes and stays the
+ * source for inventory, deletion checks and the extras of a reservation. In the default
+ * "join-table" mode no bits are assigned and masks stay 0.
+ */
+@Component
+@RequiredArgsConstructor
+public class ExtraCatalog {
+
+    public static final int MAX_EXTRAS = Long.SIZE;
+
+    private final ExtraRepository extraRepository;
+
+    @Value("${rentacar.extras.storage:join-table}")
+    private String storageMode;
+
+    private record Snapshot(long[] pricesMinor, String[] names, long knownMask) {
+    }
+
+    private volatile Snapshot snapshot = new Snapshot(new long[MAX_EXTRAS], new String[MAX_EXTRAS], 0L);
+
+    // bits handed out by bitOf whose transaction has not finished yet; once it commits the
+    // database row holds the bit, once it rolls back or the extra is deleted the bit is free
+    private final AtomicLong claimed = new AtomicLong();
+
+    public boolean isBitmaskMode() {
+        return "bitmask".equalsIgnoreCase(storageMode);
+    }
+
+    // -------------------------
+    // ENCODING
+    // -------------------------
+
+    /**
+     * Assigns a free bit on first use (bitmask mode only), inside the caller's transaction and
+     * without a lock held: the bit is claimed in memory first, so concurrent transactions in this
+     * process never pick the same one, and written with a conditional UPDATE, so a concurrent
+     * first use of the same extra waits on the row and then adopts the bit the other transaction
+     * committed.
+     */
+    public int bitOf(Extra extra) {
+        if (extra.getBitPosition() != null) {
+            return extra.getBitPosition();
+        }
+        if (!isBitmaskMode()) {
+            throw new IllegalStateException("Extra bit positions are only assigned in bitmask storage mode");
+        }
+
+        int bit = claimFreeBit(extra);
+        if (extraRepository.assignBitPosition(extra.getId(), bit) == 0) {
+            release(bit);
+            bit = extraRepository.findBitPositionById(extra.getId());
+        } else {
+            int claimed = bit;
+            TransactionHooks.afterCommit(() -> release(claimed));
+            TransactionHooks.afterRollback(() -> release(claimed));
+        }
+
+        // not written by the entity's flush: the column is not updatable
+        extra.setBitPosition(bit);
+        publish(bit, extra);
+        return bit;
+    }
+
+    // 0 outside bitmask mode
+    public long maskOf(List<Extra> extras) {
+        long mask = 0L;
+        if (extras != null && isBitmaskMode()) {
+            for (Extra extra : extras) {
+                mask |= 1L << bitOf(extra);
+            }
+        }
+        return mask;
+    }
+
+    public long maskWith(long mask, Extra extra) {
+        return isBitmaskMode() ? mask | 1L << bitOf(extra) : mask;
+    }
+
+    // -------------------------
+    // DECODING
+    // -------------------------
+
+    public long priceMinorOfMask(long mask) {
+        Snapshot current = currentFor(mask);
+        long total = 0;
+        long remaining = mask;
+        while (remaining != 0) {
+            int bit = Long.numberOfTrailingZeros(remaining);
+            total += current.pricesMinor()[bit];
+            remaining &= remaining - 1;
+        }
+        return total;
+    }
+
+    public double priceOfMask(long mask) {
+        return Money.toMajor(priceMinorOfMask(mask));
+    }
+
+    public List<String> namesOfMask(long mask) {
+        Snapshot current = currentFor(mask);
+        List<String> names = new ArrayList<>(Long.bitCount(mask));
+        long remaining = mask;
+        while (remaining != 0) {
+            int bit = Long.numberOfTrailingZeros(remaining);
+            names.add(current.names()[bit]);
+            remaining &= remaining - 1;
+        }
+        return names;
+    }
+
+    // -------------------------
+    // REFRESH
+    // -------------------------
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void refresh() {
+        long[] pricesMinor = new long[MAX_EXTRAS];
+        String[] names = new String[MAX_EXTRAS];
+        long knownMask = 0L;
+
+        for (Extra extra : extraRepository.findAll()) {
+            Integer bit = extra.getBitPosition();
+            if (bit != null) {
+                pricesMinor[bit] = Money.toMinor(extra.getPrice());
+                names[bit] = extra.getName();
+                knownMask |= 1L << bit;
+            }
+        }
+
+        snapshot = new Snapshot(pricesMinor, names, knownMask);
+    }
+
+    public void refreshAfterCommit() {
+        TransactionHooks.afterCommit(this::refresh);
+    }
+
+    // The deleted row no longer holds its bit; drop any claim and its price table entry
+    public void releaseAfterCommit(Extra extra) {
+        Integer bit = extra.getBitPosition();
+        TransactionHooks.afterCommit(() -> {
+            if (bit != null) {
+                release(bit);
+            }
+            refresh();
+        });
+    }
+
+    // A bit we have not seen yet was assigned elsewhere (another instance); load just those extras
+    private Snapshot currentFor(long mask) {
+        Snapshot current = snapshot;
+        long unknown = mask & ~current.knownMask();
+        if (unknown != 0) {
+            List<Integer> bits = new ArrayList<>(Long.bitCount(unknown));
+            for (long remaining = unknown; remaining != 0; remaining &= remaining - 1) {
+                bits.add(Long.numberOfTrailingZeros(remaining));
+            }
+            for (Extra extra : extraRepository.findByBitPositionIn(bits)) {
+                publish(extra.getBitPosition(), extra);
+            }
+            current = snapshot;
+        }
+        return current;
+    }
+
+    // -------------------------
+    // INTERNAL
+    // -------------------------
+
+    private int claimFreeBit(Extra extra) {
+        long used = 0L;
+        for (Integer bit : extraRepository.findUsedBitPositions()) {
+            used |= 1L << bit;
+        }
+
+        while (true) {
+            long current = claimed.get();
+            long free = ~(used | current);
+            if (free == 0) {
+                throw new RuntimeException("No free bit position left for extra: " + extra.getName());
+            }
+            long bit = Long.lowestOneBit(free);
+            if (claimed.compareAndSet(current, current | bit)) {
+                return Long.numberOfTrailingZeros(bit);
+            }
+        }
+    }
+
+    private void release(int bit) {
+        claimed.getAndUpdate(c -> c & ~(1L << bit));
+    }
+
+    // Copy-on-write, so the booking that assigned a bit can price it before its commit
+    private synchronized void publish(int bit, Extra extra) {
+        Snapshot current = snapshot;
+        long[] pricesMinor = current.pricesMinor().clone();
+        String[] names = current.names().clone();
+        pricesMinor[bit] = Money.toMinor(extra.getPrice());
+        names[bit] = extra.getName();
+        snapshot = new Snapshot(pricesMinor, names, current.knownMask() | 1L << bit);
+    }
+}
@@ -0,0 +1,219 @@
+package com.rentacar.service;
+
+import com.rentacar.model.Extra;
+import com.rentacar.model.ExtraStock;
+import com.rentacar.model.Location;
+import com.rentacar.repository.ExtraStockRepository;
+import com.rentacar.repository.ReservationRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Per-location, per-day extra inventory. Every (extra, location, day) has its own atomic
+ * counter, so bookings only contend when they take the same extra at the same location on
+ * the same day. Extras without an {@link ExtraStock} row at a location are unlimited there.
+ * Counters are rebuilt from ACTIVE reservations at startup and periodically; days held by
+ * bookings that have not committed yet are carried over onto the rebuilt counters.
+ */
+@Component
+@RequiredArgsConstructor
+public class ExtraInventory {
+
+    private final ExtraStockRepository extraStockRepository;
+    private final ReservationRepository reservationRepository;
+
+    private record StockKey(long extraId, long locationId) {
+    }
+
+    private record DayKey(long extraId, long locationId, long epochDay) {
+    }
+
+    // Days taken by a transaction that has not committed yet; a rebuild's queries cannot see them
+    private static final class Hold {
+        final List<DayKey> days = new ArrayList<>();
+    }
+
+    private final RebuildGuard guard = new RebuildGuard();
+    private final Set<Hold> pending = ConcurrentHashMap.newKeySet();
+    private volatile ConcurrentHashMap<StockKey, Integer> capacities = new ConcurrentHashMap<>();
+    private volatile ConcurrentHashMap<DayKey, AtomicInteger> reserved = new ConcurrentHashMap<>();
+
+    // -------------------------
+    // RESERVE / RELEASE
+    // -------------------------
+
+    // All-or-nothing: either every extra is reserved for every day or nothing is
+    public boolean reserve(List<Extra> extras, Location location, LocalDateTime from, LocalDateTime to) {
+        if (extras == null || extras.isEmpty() || location == null) {
+            return true;
+        }
+
+        long locationId = location.getId();
+        long firstDay = BookingDays.firstDay(from);
+        long lastDay = BookingDays.lastDay(from, to);
+        Hold hold = new Hold();
+        boolean[] granted = {true};
+
+        guard.shared(() -> {
+            for (Extra extra : extras) {
+                Integer capacity = capacities.get(new StockKey(extra.getId(), locationId));
+                if (capacity == null) {
+                    continue;
+                }
+
+                for (long day = firstDay; day <= lastDay; day++) {
+                    DayKey key = new DayKey(extra.getId(), locationId, day);
+                    if (!tryAcquire(reserved.computeIfAbsent(key, k -> new AtomicInteger()), capacity)) {
+                        undo(hold);
+                        granted[0] = false;
+                        return;
+                    }
+                    hold.days.add(key);
+                }
+            }
+            if (!hold.days.isEmpty()) {
+                pending.add(hold);
+            }
+        });
+
+        if (granted[0] && !hold.days.isEmpty()) {
+            // committed: the reservation row now carries the days; rolled back: give them back
+            guard.afterCommit(() -> pending.remove(hold));
+            guard.afterRollback(() -> {
+                if (pending.remove(hold)) {
+                    undo(hold);
+                }
+            });
+        }
+        return granted[0];
+    }
+
+    public void release(List<Extra> extras, Location location, LocalDateTime from, LocalDateTime to) {
+        if (extras == null || extras.isEmpty() || location == null) {
+            return;
+        }
+
+        long locationId = location.getId();
+        List<Long> extraIds = extras.stream().map(Extra::getId).toList();
+        guard.afterCommit(() -> {
+            for (Long extraId : extraIds) {
+                if (!capacities.containsKey(new StockKey(extraId, locationId))) {
+                    continue;
+                }
+                long lastDay = BookingDays.lastDay(from, to);
+                for (long day = BookingDays.firstDay(from); day <= lastDay; day++) {
+                    AtomicInteger counter = reserved.get(new DayKey(extraId, locationId, day));
+                    if (counter != null) {
+                        decrement(counter);
+                    }
+                }
+            }
+        });
+    }
+
+    // -------------------------
+    // STOCK
+    // -------------------------
+
+    public void setCapacity(Long extraId, Long locationId, int quantity) {
+        guard.afterCommit(() -> capacities.put(new StockKey(extraId, locationId), quantity));
+    }
+
+    // Integer.MAX_VALUE when the extra is not stock-managed at the location
+    public int getAvailable(Long extraId, Long locationId, LocalDate day) {
+        Integer capacity = capacities.get(new StockKey(extraId, locationId));
+        if (capacity == null) {
+            return Integer.MAX_VALUE;
+        }
+        AtomicInteger counter = reserved.get(new DayKey(extraId, locationId, day.toEpochDay()));
+        return Math.max(0, capacity - (counter == null ? 0 : counter.get()));
+    }
+
+    // -------------------------
+    // REBUILD
+    // -------------------------
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${rentacar.extra-inventory.rebuild-interval-ms:300000}",
+            initialDelayString = "${rentacar.extra-inventory.rebuild-interval-ms:300000}")
+    // Read-write so it runs on the primary: a lagging replica would miss recent bookings and oversell
+    @Transactional
+    public void rebuild() {
+        guard.exclusive(() -> {
+            ConcurrentHashMap<StockKey, Integer> freshCapacities = new ConcurrentHashMap<>();
+            for (ExtraStock stock : extraStockRepository.findAll()) {
+                freshCapacities.put(new StockKey(stock.getExtra().getId(), stock.getLocation().getId()),
+                        stock.getQuantity());
+            }
+
+            ConcurrentHashMap<DayKey, AtomicInteger> freshReserved = new ConcurrentHashMap<>();
+            long today = LocalDate.now().toEpochDay();
+            for (Object[] row : reservationRepository.findActiveExtraBookings(LocalDate.now().atStartOfDay())) {
+                long extraId = (Long) row[0];
+                long locationId = (Long) row[1];
+                if (!freshCapacities.containsKey(new StockKey(extraId, locationId))) {
+                    continue;
+                }
+                LocalDateTime from = (LocalDateTime) row[2];
+                LocalDateTime to = (LocalDateTime) row[3];
+                long lastDay = BookingDays.lastDay(from, to);
+                for (long day = Math.max(today, BookingDays.firstDay(from)); day <= lastDay; day++) {
+                    freshReserved.computeIfAbsent(new DayKey(extraId, locationId, day), k -> new AtomicInteger())
+                            .incrementAndGet();
+                }
+            }
+
+            // bookings still in flight keep their days on the fresh counters
+            for (Hold hold : pending) {
+                for (DayKey key : hold.days) {
+                    freshReserved.computeIfAbsent(key, k -> new AtomicInteger()).incrementAndGet();
+                }
+            }
+
+            capacities = freshCapacities;
+            reserved = freshReserved;
+        });
+    }
+
+    // -------------------------
+    // INTERNAL
+    // -------------------------
+
+    private static boolean tryAcquire(AtomicInteger counter, int capacity) {
+        while (true) {
+            int current = counter.get();
+            if (current >= capacity) {
+                return false;
+            }
+            if (counter.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    // against whichever counters are current, which include the hold's days
+    private void undo(Hold hold) {
+        for (DayKey key : hold.days) {
+            AtomicInteger counter = reserved.get(key);
+            if (counter != null) {
+                decrement(counter);
+            }
+        }
+    }
+
+    private static void decrement(AtomicInteger counter) {
+        counter.updateAndGet(v -> Math.max(0, v - 1));
+    }
+}
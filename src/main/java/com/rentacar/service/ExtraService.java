@@ -1,7 +1,12 @@
 package com.rentacar.service;
 
 import com.rentacar.model.Extra;
+import com.rentacar.model.ExtraStock;
+import com.rentacar.model.Location;
 import com.rentacar.repository.ExtraRepository;
+import com.rentacar.repository.ExtraStockRepository;
+import com.rentacar.repository.LocationRepository;
+import com.rentacar.repository.ReservationRepository;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -13,16 +18,24 @@ import java.util.List;
 @Transactional
 public class ExtraService {
     private final ExtraRepository extraRepository;
+    private final ExtraStockRepository extraStockRepository;
+    private final LocationRepository locationRepository;
+    private final ExtraInventory extraInventory;
+    private final ExtraCatalog extraCatalog;
+    private final ReservationRepository reservationRepository;
 
+    @Transactional(readOnly = true)
     public List<Extra> getAllExtras() {
         return extraRepository.findAll();
     }
 
+    @Transactional(readOnly = true)
     public Extra getExtraById(Long id) {
         return extraRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Extra not found with id: " + id));
     }
 
+    @Transactional(readOnly = true)
     public Extra getExtraByName(String name) {
         return extraRepository.findByName(name)
                 .orElseThrow(() -> new RuntimeException("Extra not found with name: " + name));
@@ -32,7 +45,11 @@ public class ExtraService {
         if (extraRepository.findByName(extra.getName()).isPresent()) {
             throw new RuntimeException("Extra with name " + extra.getName() + " already exists");
         }
-        return extraRepository.save(extra);
+        Extra saved = extraRepository.save(extra);
+        if (extraCatalog.isBitmaskMode()) {
+            extraCatalog.bitOf(saved);
+        }
+        return saved;
     }
 
     public Extra updateExtra(Long id, Extra extraDetails) {
@@ -40,17 +57,38 @@ public class ExtraService {
         extra.setName(extraDetails.getName());
         extra.setPrice(extraDetails.getPrice());
 
+        extraCatalog.refreshAfterCommit();
         return extraRepository.save(extra);
     }
 
     public boolean deleteExtra(Long id) {
         Extra extra = getExtraById(id);
 
-        if (!extra.getReservations().isEmpty()) {
+        if (reservationRepository.existsByExtrasId(id)) {
             return false;
         }
 
+        extraStockRepository.deleteByExtraId(id);
         extraRepository.delete(extra);
+        extraCatalog.releaseAfterCommit(extra);
         return true;
     }
-}
\ No newline at end of file
+
+    public ExtraStock setStock(Long extraId, String locationCode, int quantity) {
+        if (quantity < 0) {
+            throw new RuntimeException("Stock quantity cannot be negative");
+        }
+
+        Extra extra = getExtraById(extraId);
+        Location location = locationRepository.findByCode(locationCode)
+                .orElseThrow(() -> new RuntimeException("Location not found with code: " + locationCode));
+
+        ExtraStock stock = extraStockRepository.findByExtraIdAndLocationId(extra.getId(), location.getId())
+                .orElseGet(() -> new ExtraStock(extra, location, quantity));
+        stock.setQuantity(quantity);
+
+        ExtraStock saved = extraStockRepository.save(stock);
+        extraInventory.setCapacity(extra.getId(), location.getId(), quantity);
+        return saved;
+    }
+}
@@ -0,0 +1,188 @@
+package com.rentacar.service;
+
+import com.rentacar.dto.RebalancingPlanDTO;
+import com.rentacar.dto.RebalancingTransferDTO;
+import com.rentacar.repository.CarRepository;
+import com.rentacar.repository.ReservationRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Plans car transfers between locations so that every location can serve the pickups
+ * forecast within the horizon, at its lowest point and not just at the end of it. All inputs are grouped aggregates, so the planner never
+ * loads Car or Reservation entities regardless of fleet size.
+ */
+@Service
+@RequiredArgsConstructor
+@Transactional(readOnly = true)
+public class FleetRebalancingService {
+
+    static final String UNCATEGORIZED = "UNCATEGORIZED";
+    public static final int MAX_HORIZON_DAYS = 90;
+
+    private final CarRepository carRepository;
+    private final ReservationRepository reservationRepository;
+
+    private record CategoryPlan(List<RebalancingTransferDTO> transfers, long moved, long unmet) {
+    }
+
+    public RebalancingPlanDTO planRebalancing(int horizonDays) {
+        if (horizonDays < 1 || horizonDays > MAX_HORIZON_DAYS) {
+            throw new IllegalArgumentException("horizonDays must be between 1 and " + MAX_HORIZON_DAYS);
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime horizonEnd = now.plusDays(horizonDays);
+
+        // category -> location code -> cars on hand now
+        Map<String, Map<String, Long>> onHand = new HashMap<>();
+        accumulate(onHand, carRepository.countByLocationCodeAndCategory(), 1);
+        accumulate(onHand, reservationRepository.countCarsOutByLocationAndCategory(now), -1);
+
+        // category -> location code -> day -> {pickups, dropoffs}
+        Map<String, Map<String, TreeMap<LocalDate, long[]>>> movements = new HashMap<>();
+        accumulateDaily(movements, reservationRepository.countPickupsByLocationCategoryAndDay(now, horizonEnd), 0);
+        accumulateDaily(movements, reservationRepository.countDropoffsByLocationCategoryAndDay(now, horizonEnd), 1);
+
+        Map<String, Map<String, Long>> balances = lowestBalances(onHand, movements);
+
+        // Categories are independent; the parallel stream splits them over the common fork/join pool
+        List<CategoryPlan> plans = balances.entrySet().parallelStream()
+                .map(entry -> planCategory(entry.getKey(), entry.getValue()))
+                .toList();
+
+        List<RebalancingTransferDTO> transfers = new ArrayList<>();
+        long moved = 0;
+        long unmet = 0;
+        for (CategoryPlan plan : plans) {
+            transfers.addAll(plan.transfers());
+            moved += plan.moved();
+            unmet += plan.unmet();
+        }
+        transfers.sort(Comparator.comparing(RebalancingTransferDTO::getCategory)
+                .thenComparing(RebalancingTransferDTO::getFromLocationCode)
+                .thenComparing(RebalancingTransferDTO::getToLocationCode));
+
+        RebalancingPlanDTO result = new RebalancingPlanDTO();
+        result.setHorizonStart(now);
+        result.setHorizonEnd(horizonEnd);
+        result.setTransfers(transfers);
+        result.setTotalCarsMoved(moved);
+        result.setUnmetDemand(unmet);
+        return result;
+    }
+
+    /**
+     * Matches surplus locations to deficit locations, largest first. The model has no distances,
+     * so every transfer costs the same and min-cost flow reduces to moving exactly
+     * min(total surplus, total deficit) cars; pairing largest with largest keeps the number
+     * of transfer legs low.
+     */
+    public static List<RebalancingTransferDTO> planTransfers(String category, Map<String, Long> balanceByLocation) {
+        return planCategory(category, balanceByLocation).transfers();
+    }
+
+    private static CategoryPlan planCategory(String category, Map<String, Long> balanceByLocation) {
+        List<Map.Entry<String, Long>> surpluses = new ArrayList<>();
+        List<Map.Entry<String, Long>> deficits = new ArrayList<>();
+        for (Map.Entry<String, Long> entry : balanceByLocation.entrySet()) {
+            if (entry.getValue() > 0) {
+                surpluses.add(Map.entry(entry.getKey(), entry.getValue()));
+            } else if (entry.getValue() < 0) {
+                deficits.add(Map.entry(entry.getKey(), -entry.getValue()));
+            }
+        }
+
+        Comparator<Map.Entry<String, Long>> largestFirst =
+                Map.Entry.<String, Long>comparingByValue().reversed().thenComparing(Map.Entry.comparingByKey());
+        surpluses.sort(largestFirst);
+        deficits.sort(largestFirst);
+
+        List<RebalancingTransferDTO> transfers = new ArrayList<>();
+        long moved = 0;
+        long totalDeficit = deficits.stream().mapToLong(Map.Entry::getValue).sum();
+
+        int i = 0;
+        int j = 0;
+        long surplusLeft = surpluses.isEmpty() ? 0 : surpluses.get(0).getValue();
+        long deficitLeft = deficits.isEmpty() ? 0 : deficits.get(0).getValue();
+
+        while (i < surpluses.size() && j < deficits.size()) {
+            long count = Math.min(surplusLeft, deficitLeft);
+            transfers.add(new RebalancingTransferDTO(category,
+                    surpluses.get(i).getKey(), deficits.get(j).getKey(), count));
+            moved += count;
+            surplusLeft -= count;
+            deficitLeft -= count;
+
+            if (surplusLeft == 0 && ++i < surpluses.size()) {
+                surplusLeft = surpluses.get(i).getValue();
+            }
+            if (deficitLeft == 0 && ++j < deficits.size()) {
+                deficitLeft = deficits.get(j).getValue();
+            }
+        }
+
+        return new CategoryPlan(transfers, moved, totalDeficit - moved);
+    }
+
+    /**
+     * The lowest balance each location reaches within the horizon: a location that runs short
+     * mid-window needs the cars then, even if later dropoffs bring it back up, and a surplus is
+     * only free to move if it is never needed. Within a day, pickups are taken before dropoffs.
+     */
+    private static Map<String, Map<String, Long>> lowestBalances(
+            Map<String, Map<String, Long>> onHand,
+            Map<String, Map<String, TreeMap<LocalDate, long[]>>> movements) {
+
+        Map<String, Map<String, Long>> lowest = new HashMap<>();
+        onHand.forEach((category, byLocation) ->
+                lowest.computeIfAbsent(category, c -> new HashMap<>()).putAll(byLocation));
+        movements.forEach((category, byLocation) -> {
+            Map<String, Long> categoryLowest = lowest.computeIfAbsent(category, c -> new HashMap<>());
+            byLocation.forEach((locationCode, days) -> {
+                long balance = categoryLowest.getOrDefault(locationCode, 0L);
+                long low = balance;
+                for (long[] day : days.values()) {
+                    low = Math.min(low, balance - day[0]);
+                    balance += day[1] - day[0];
+                }
+                categoryLowest.put(locationCode, low);
+            });
+        });
+        return lowest;
+    }
+
+    private static void accumulateDaily(Map<String, Map<String, TreeMap<LocalDate, long[]>>> movements,
+                                        List<Object[]> rows, int slot) {
+        for (Object[] row : rows) {
+            String locationCode = (String) row[0];
+            String category = row[1] == null ? UNCATEGORIZED : (String) row[1];
+            LocalDate day = (LocalDate) row[2];
+            long count = (Long) row[3];
+            movements.computeIfAbsent(category, c -> new HashMap<>())
+                    .computeIfAbsent(locationCode, l -> new TreeMap<>())
+                    .computeIfAbsent(day, d -> new long[2])[slot] += count;
+        }
+    }
+
+    private static void accumulate(Map<String, Map<String, Long>> balances, List<Object[]> rows, int sign) {
+        for (Object[] row : rows) {
+            String locationCode = (String) row[0];
+            String category = row[1] == null ? UNCATEGORIZED : (String) row[1];
+            long count = (Long) row[2];
+            balances.computeIfAbsent(category, c -> new HashMap<>())
+                    .merge(locationCode, sign * count, Long::sum);
+        }
+    }
+}
@@ -0,0 +1,117 @@
+package com.rentacar.service;
+
+import com.rentacar.model.Car;
+import com.rentacar.model.Location;
+import com.rentacar.model.Member;
+import com.rentacar.model.Reservation;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.*;
+import org.hibernate.persister.entity.EntityPersister;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Change counter behind the ETags of the fleet endpoints. Every committed insert, update or
+ * delete of a car, reservation, location or member bumps it, after the in-memory counters have
+ * applied the same commit; a response tagged with the version read before its query can be
+ * revalidated with If-None-Match without touching the database.
+ * <p>
+ * Assumes a single instance owning the database: the counter lives in this process and only
+ * sees writes made through its own Hibernate session factory. Writes from another instance or
+ * plain JDBC (SyntheticDataGenerator) go unnoticed unless their writer calls {@link #invalidate()},
+ * as the OccupancyCounters rebuild does since it moves dynamic prices. Running several instances
+ * behind one load balancer needs a shared version (e.g. a database sequence) instead.
+ */
+@Component
+public class FleetVersion {
+
+    // differs per process, so a tag handed out before a restart never matches
+    private final String epoch = Long.toString(System.currentTimeMillis(), 36);
+    private final AtomicLong version = new AtomicLong();
+
+    public FleetVersion(EntityManagerFactory entityManagerFactory) {
+        EventListenerRegistry listeners = entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+                .getServiceRegistry().requireService(EventListenerRegistry.class);
+        ChangeListener listener = new ChangeListener();
+        listeners.appendListeners(EventType.POST_INSERT, listener);
+        listeners.appendListeners(EventType.POST_UPDATE, listener);
+        listeners.appendListeners(EventType.POST_DELETE, listener);
+    }
+
+    public long current() {
+        return version.get();
+    }
+
+    // For changes Hibernate does not report: every tag handed out so far stops matching
+    public void invalidate() {
+        version.incrementAndGet();
+    }
+
+    // Weak: the tag names the content, not the bytes, so gzip-compressed bodies may carry it.
+    // The representation (json, cbor) is part of it: the same content in another format is another body
+    public String etag(String representation) {
+        return "W/\"" + epoch + "-" + version.get() + "-" + representation + "\"";
+    }
+
+    // For responses that also change with the clock: the tag rolls over with the bucket
+    public String etag(String representation, long timeBucket) {
+        return "W/\"" + epoch + "-" + version.get() + "-" + timeBucket + "-" + representation + "\"";
+    }
+
+    /**
+     * Whether an If-None-Match header names a tag of the current version, so the endpoint will
+     * answer 304 without querying. A rented tag from an earlier time window of the same version
+     * still counts; that request then runs its query.
+     */
+    public boolean isCurrent(String ifNoneMatch) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        String prefix = "\"" + epoch + "-" + version.get() + "-";
+        for (String tag : ifNoneMatch.split(",")) {
+            String trimmed = tag.trim();
+            if (trimmed.startsWith("W/")) {
+                trimmed = trimmed.substring(2);
+            }
+            if (trimmed.startsWith(prefix)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void changed(Object entity) {
+        if (entity instanceof Car || entity instanceof Reservation
+                || entity instanceof Location || entity instanceof Member) {
+            // registered at flush, so it runs after the afterCommit hooks of the service method
+            TransactionHooks.afterCommit(version::incrementAndGet);
+        }
+    }
+
+    private final class ChangeListener
+            implements PostInsertEventListener, PostUpdateEventListener, PostDeleteEventListener {
+
+        @Override
+        public void onPostInsert(PostInsertEvent event) {
+            changed(event.getEntity());
+        }
+
+        @Override
+        public void onPostUpdate(PostUpdateEvent event) {
+            changed(event.getEntity());
+        }
+
+        @Override
+        public void onPostDelete(PostDeleteEvent event) {
+            changed(event.getEntity());
+        }
+
+        @Override
+        public boolean requiresPostCommitHandling(EntityPersister persister) {
+            return false;
+        }
+    }
+}
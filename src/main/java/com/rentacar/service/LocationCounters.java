@@ -0,0 +1,244 @@
+package com.rentacar.service;
+
+import com.rentacar.model.Location;
+import com.rentacar.repository.CarRepository;
+import com.rentacar.repository.ReservationRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * In-memory per-location counters: cars by status, upcoming (ACTIVE, not yet due) pickups and
+ * dropoffs, and the number of reservations referencing the location. Mutations are applied after
+ * the surrounding transaction commits and the whole table is periodically rebuilt from the
+ * database; a pickup or dropoff whose time has passed drops out of "upcoming" at the next rebuild.
+ */
+@Component
+@RequiredArgsConstructor
+public class LocationCounters {
+
+    private final CarRepository carRepository;
+    private final ReservationRepository reservationRepository;
+
+    private final RebuildGuard guard = new RebuildGuard();
+    private volatile ConcurrentHashMap<Long, Counters> byLocation = new ConcurrentHashMap<>();
+
+    static final class Counters {
+        final ConcurrentHashMap<String, AtomicLong> carsByStatus = new ConcurrentHashMap<>();
+        final AtomicLong cars = new AtomicLong();
+        final AtomicLong upcomingPickups = new AtomicLong();
+        final AtomicLong upcomingDropoffs = new AtomicLong();
+        final AtomicLong reservationRefs = new AtomicLong();
+
+        void addCars(String status, long delta) {
+            carsByStatus.computeIfAbsent(status, s -> new AtomicLong()).addAndGet(delta);
+            cars.addAndGet(delta);
+        }
+    }
+
+    // -------------------------
+    // READS
+    // -------------------------
+
+    public Map<String, Long> getCarsByStatus(Long locationId) {
+        Counters counters = byLocation.get(locationId);
+        Map<String, Long> result = new HashMap<>();
+        if (counters != null) {
+            counters.carsByStatus.forEach((status, count) -> {
+                if (count.get() > 0) {
+                    result.put(status, count.get());
+                }
+            });
+        }
+        return result;
+    }
+
+    public long getCarCount(Long locationId) {
+        Counters counters = byLocation.get(locationId);
+        return counters == null ? 0 : counters.cars.get();
+    }
+
+    public long getUpcomingPickups(Long locationId) {
+        Counters counters = byLocation.get(locationId);
+        return counters == null ? 0 : counters.upcomingPickups.get();
+    }
+
+    public long getUpcomingDropoffs(Long locationId) {
+        Counters counters = byLocation.get(locationId);
+        return counters == null ? 0 : counters.upcomingDropoffs.get();
+    }
+
+    public boolean isInUse(Long locationId) {
+        Counters counters = byLocation.get(locationId);
+        return counters != null && (counters.cars.get() > 0 || counters.reservationRefs.get() > 0);
+    }
+
+    // -------------------------
+    // CAR MUTATIONS
+    // -------------------------
+
+    public void carAdded(Location location, String status) {
+        Long locationId = idOf(location);
+        guard.afterCommit(() -> addCars(locationId, status, 1));
+    }
+
+    public void carRemoved(Location location, String status) {
+        Long locationId = idOf(location);
+        guard.afterCommit(() -> addCars(locationId, status, -1));
+    }
+
+    public void carChanged(Location oldLocation, String oldStatus, Location newLocation, String newStatus) {
+        Long oldLocationId = idOf(oldLocation);
+        Long newLocationId = idOf(newLocation);
+        if (Objects.equals(oldLocationId, newLocationId) && Objects.equals(oldStatus, newStatus)) {
+            return;
+        }
+        guard.afterCommit(() -> {
+            addCars(oldLocationId, oldStatus, -1);
+            addCars(newLocationId, newStatus, 1);
+        });
+    }
+
+    // -------------------------
+    // RESERVATION MUTATIONS
+    // -------------------------
+
+    public void reservationCreated(Location pickupLocation, Location dropoffLocation,
+                                   LocalDateTime pickupDate, LocalDateTime dropoffDate) {
+        Long pickupId = idOf(pickupLocation);
+        Long dropoffId = idOf(dropoffLocation);
+        guard.afterCommit(() -> {
+            LocalDateTime now = LocalDateTime.now();
+            Counters pickup = countersFor(pickupId);
+            Counters dropoff = countersFor(dropoffId);
+            if (pickup != null) {
+                if (isUpcoming(pickupDate, now)) {
+                    pickup.upcomingPickups.incrementAndGet();
+                }
+                pickup.reservationRefs.incrementAndGet();
+            }
+            if (dropoff != null) {
+                if (isUpcoming(dropoffDate, now)) {
+                    dropoff.upcomingDropoffs.incrementAndGet();
+                }
+                dropoff.reservationRefs.incrementAndGet();
+            }
+        });
+    }
+
+    // ACTIVE -> COMPLETED / CANCELLED; a date already past was never or is no longer counted
+    public void reservationClosed(Location pickupLocation, Location dropoffLocation,
+                                  LocalDateTime pickupDate, LocalDateTime dropoffDate) {
+        Long pickupId = idOf(pickupLocation);
+        Long dropoffId = idOf(dropoffLocation);
+        guard.afterCommit(() -> {
+            LocalDateTime now = LocalDateTime.now();
+            Counters pickup = countersFor(pickupId);
+            Counters dropoff = countersFor(dropoffId);
+            if (pickup != null && isUpcoming(pickupDate, now)) {
+                decrement(pickup.upcomingPickups);
+            }
+            if (dropoff != null && isUpcoming(dropoffDate, now)) {
+                decrement(dropoff.upcomingDropoffs);
+            }
+        });
+    }
+
+    public void reservationDeleted(Location pickupLocation, Location dropoffLocation) {
+        Long pickupId = idOf(pickupLocation);
+        Long dropoffId = idOf(dropoffLocation);
+        guard.afterCommit(() -> {
+            Counters pickup = countersFor(pickupId);
+            Counters dropoff = countersFor(dropoffId);
+            if (pickup != null) {
+                pickup.reservationRefs.decrementAndGet();
+            }
+            if (dropoff != null) {
+                dropoff.reservationRefs.decrementAndGet();
+            }
+        });
+    }
+
+    public void locationRemoved(Long locationId) {
+        guard.afterCommit(() -> byLocation.remove(locationId));
+    }
+
+    // -------------------------
+    // RECONCILIATION
+    // -------------------------
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${rentacar.location-counters.reconcile-interval-ms:300000}",
+            initialDelayString = "${rentacar.location-counters.reconcile-interval-ms:300000}")
+    // On the primary, not readOnly (which routes to the replica): a lagging copy would undo recent deltas
+    @Transactional
+    public void reconcile() {
+        guard.exclusive(() -> {
+            ConcurrentHashMap<Long, Counters> fresh = new ConcurrentHashMap<>();
+
+            for (Object[] row : carRepository.countByLocationAndStatus()) {
+                fresh.computeIfAbsent((Long) row[0], id -> new Counters())
+                        .addCars((String) row[1], (Long) row[2]);
+            }
+
+            LocalDateTime now = LocalDateTime.now();
+            apply(fresh, reservationRepository.countActiveByPickupLocation(now), c -> c.upcomingPickups);
+            apply(fresh, reservationRepository.countActiveByDropoffLocation(now), c -> c.upcomingDropoffs);
+            apply(fresh, reservationRepository.countAllByPickupLocation(), c -> c.reservationRefs);
+            apply(fresh, reservationRepository.countAllByDropoffLocation(), c -> c.reservationRefs);
+
+            byLocation = fresh;
+        });
+    }
+
+    // -------------------------
+    // INTERNAL
+    // -------------------------
+
+    private void addCars(Long locationId, String status, long delta) {
+        Counters counters = countersFor(locationId);
+        if (counters != null && status != null) {
+            counters.addCars(status, delta);
+        }
+    }
+
+    private Counters countersFor(Long locationId) {
+        if (locationId == null) {
+            return null;
+        }
+        return byLocation.computeIfAbsent(locationId, id -> new Counters());
+    }
+
+    private static boolean isUpcoming(LocalDateTime date, LocalDateTime now) {
+        return date != null && !date.isBefore(now);
+    }
+
+    // the counted date may have passed and been dropped by a rebuild in between
+    private static void decrement(AtomicLong counter) {
+        counter.updateAndGet(v -> Math.max(0, v - 1));
+    }
+
+    private static void apply(Map<Long, Counters> target, List<Object[]> rows,
+                              Function<Counters, AtomicLong> field) {
+        for (Object[] row : rows) {
+            Counters counters = target.computeIfAbsent((Long) row[0], id -> new Counters());
+            field.apply(counters).addAndGet((Long) row[1]);
+        }
+    }
+
+    private static Long idOf(Location location) {
+        return location == null ? null : location.getId();
+    }
+}
@@ -1,6 +1,8 @@
 package com.rentacar.service;
 
+import com.rentacar.dto.LocationOccupancyDTO;
 import com.rentacar.model.Location;
+import com.rentacar.repository.ExtraStockRepository;
 import com.rentacar.repository.LocationRepository;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
@@ -13,16 +15,21 @@ import java.util.List;
 @Transactional
 public class LocationService {
     private final LocationRepository locationRepository;
+    private final ExtraStockRepository extraStockRepository;
+    private final LocationCounters locationCounters;
 
+    @Transactional(readOnly = true)
     public List<Location> getAllLocations() {
         return locationRepository.findAll();
     }
 
+    @Transactional(readOnly = true)
     public Location getLocationById(Long id) {
         return locationRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Location not found with id: " + id));
     }
 
+    @Transactional(readOnly = true)
     public Location getLocationByCode(String code) {
         return locationRepository.findByCode(code)
                 .orElseThrow(() -> new RuntimeException("Location not found with code: " + code));
@@ -45,13 +52,30 @@ public class LocationService {
     public boolean deleteLocation(Long id) {
         Location location = getLocationById(id);
 
-        if (!location.getCars().isEmpty() ||
-                !location.getPickupReservations().isEmpty() ||
-                !location.getDropoffReservations().isEmpty()) {
+        // The counters follow every car and reservation the services write and are reconciled on a
+        // schedule; a row written behind their back still trips the foreign keys at flush
+        if (locationCounters.isInUse(id)) {
             return false;
         }
 
+        extraStockRepository.deleteByLocationId(id);
         locationRepository.delete(location);
+        locationCounters.locationRemoved(id);
         return true;
     }
+
+    @Transactional(readOnly = true)
+    public LocationOccupancyDTO getLocationOccupancy(String code) {
+        Location location = getLocationByCode(code);
+        Long id = location.getId();
+
+        LocationOccupancyDTO dto = new LocationOccupancyDTO();
+        dto.setLocationCode(location.getCode());
+        dto.setLocationName(location.getName());
+        dto.setCarsByStatus(locationCounters.getCarsByStatus(id));
+        dto.setTotalCars(locationCounters.getCarCount(id));
+        dto.setUpcomingPickups(locationCounters.getUpcomingPickups(id));
+        dto.setUpcomingDropoffs(locationCounters.getUpcomingDropoffs(id));
+        return dto;
+    }
 }
\ No newline at end of file
@@ -3,6 +3,7 @@ package com.rentacar.service;
 import com.rentacar.model.Member;
 import com.rentacar.model.ReservationStatus;
 import com.rentacar.repository.MemberRepository;
+import com.rentacar.repository.ReservationRepository;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -14,21 +15,26 @@ import java.util.List;
 @Transactional
 public class MemberService {
     private final MemberRepository memberRepository;
+    private final ReservationRepository reservationRepository;
 
+    @Transactional(readOnly = true)
     public List<Member> getAllMembers() {
         return memberRepository.findAll();
     }
 
+    @Transactional(readOnly = true)
     public Member getMemberById(Long id) {
         return memberRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Member not found with id: " + id));
     }
 
+    @Transactional(readOnly = true)
     public Member getMemberByEmail(String email) {
         return memberRepository.findByEmail(email)
                 .orElseThrow(() -> new RuntimeException("Member not found with email: " + email));
     }
 
+    @Transactional(readOnly = true)
     public Member getMemberByDrivingLicense(String drivingLicenseNumber) {
         return memberRepository.findByDrivingLicenseNumber(drivingLicenseNumber)
                 .orElseThrow(() -> new RuntimeException("Member not found with driving license: " + drivingLicenseNumber));
@@ -57,8 +63,8 @@ public class MemberService {
     public boolean deleteMember(Long id) {
         Member member = getMemberById(id);
 
-        boolean hasActiveReservations = member.getReservations().stream()
-                .anyMatch(reservation -> reservation.getStatus() == ReservationStatus.ACTIVE);
+        boolean hasActiveReservations =
+                reservationRepository.existsByMemberIdAndStatus(id, ReservationStatus.ACTIVE);
 
         if (hasActiveReservations) {
             return false;
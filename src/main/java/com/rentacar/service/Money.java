@@ -0,0 +1,27 @@
+package com.rentacar.service;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+// Prices are stored as Double on the entities; all arithmetic happens on long minor units (cents)
+public final class Money {
+
+    private static final int SCALE = 2;
+    private static final double MINOR_PER_MAJOR = 100.0;
+
+    private Money() {
+    }
+
+    public static long toMinor(Double major) {
+        if (major == null) {
+            return 0L;
+        }
+        return BigDecimal.valueOf(major).setScale(SCALE, RoundingMode.HALF_UP).unscaledValue().longValueExact();
+    }
+
+    // One correctly rounded division: the same double as BigDecimal.valueOf(minor, 2).doubleValue()
+    // for every |minor| below 2^53, without allocating
+    public static double toMajor(long minor) {
+        return minor / MINOR_PER_MAJOR;
+    }
+}
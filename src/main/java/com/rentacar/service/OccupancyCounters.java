@@ -0,0 +1,153 @@
+package com.rentacar.service;
+
+import com.rentacar.model.Location;
+import com.rentacar.repository.CarRepository;
+import com.rentacar.repository.ReservationRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Booked cars per (pickup location, category, day), maintained incrementally from reservation
+ * mutations, next to the fleet size per (location, category). Fleet sizes and bookings are
+ * both rebuilt from the database at startup and periodically; between rebuilds only bookings
+ * move, since the fleet changes far more slowly than reservations do. A booking that commits
+ * while a rebuild runs is either in its query results or applied to the rebuilt counters.
+ */
+@Component
+@RequiredArgsConstructor
+public class OccupancyCounters {
+
+    private final CarRepository carRepository;
+    private final ReservationRepository reservationRepository;
+    private final ObjectProvider<FleetVersion> fleetVersion;
+
+    private record FleetKey(long locationId, String category) {
+    }
+
+    private record DayKey(long locationId, String category, long epochDay) {
+    }
+
+    private final RebuildGuard guard = new RebuildGuard();
+    private volatile ConcurrentHashMap<FleetKey, Integer> fleet = new ConcurrentHashMap<>();
+    private volatile ConcurrentHashMap<DayKey, AtomicInteger> booked = new ConcurrentHashMap<>();
+
+    // -------------------------
+    // READS (O(1))
+    // -------------------------
+
+    public int getFleetSize(Long locationId, String category) {
+        Integer size = fleet.get(new FleetKey(locationId, key(category)));
+        return size == null ? 0 : size;
+    }
+
+    public int getBooked(Long locationId, String category, long epochDay) {
+        AtomicInteger counter = booked.get(new DayKey(locationId, key(category), epochDay));
+        return counter == null ? 0 : counter.get();
+    }
+
+    public int getBooked(Long locationId, String category, LocalDate day) {
+        return getBooked(locationId, category, day.toEpochDay());
+    }
+
+    // 0..100+, or -1 when the location has no cars of the category
+    public int utilizationPercent(Long locationId, String category, long epochDay) {
+        int size = getFleetSize(locationId, category);
+        if (size == 0) {
+            return -1;
+        }
+        return getBooked(locationId, category, epochDay) * 100 / size;
+    }
+
+    // -------------------------
+    // MUTATIONS
+    // -------------------------
+
+    public void reservationCreated(Location pickupLocation, String category,
+                                   LocalDateTime pickup, LocalDateTime dropoff) {
+        if (pickupLocation == null) {
+            return;
+        }
+        long locationId = pickupLocation.getId();
+        guard.afterCommit(() -> addBooking(booked, locationId, category, pickup, dropoff, 1, Long.MIN_VALUE));
+    }
+
+    // ACTIVE -> COMPLETED / CANCELLED
+    public void reservationReleased(Location pickupLocation, String category,
+                                    LocalDateTime pickup, LocalDateTime dropoff) {
+        if (pickupLocation == null) {
+            return;
+        }
+        long locationId = pickupLocation.getId();
+        guard.afterCommit(() -> addBooking(booked, locationId, category, pickup, dropoff, -1, Long.MIN_VALUE));
+    }
+
+    // -------------------------
+    // REBUILD (FULL RESCAN)
+    // -------------------------
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${rentacar.occupancy.rebuild-interval-ms:300000}",
+            initialDelayString = "${rentacar.occupancy.rebuild-interval-ms:300000}")
+    // Not readOnly, so never rebuilt from a replica that is behind the primary
+    @Transactional
+    public void rebuild() {
+        LocalDateTime today = LocalDate.now().atStartOfDay();
+        guard.exclusive(() -> load(carRepository.countByLocationIdAndCategory(),
+                reservationRepository.findActiveBookingsByLocationAndCategory(today),
+                today.toLocalDate().toEpochDay()));
+    }
+
+    /**
+     * Replaces all counters from fleet rows (locationId, category, count) and ACTIVE booking
+     * rows (pickupLocationId, category, pickupDate, dropoffDate); days before fromEpochDay are skipped.
+     */
+    public void load(List<Object[]> fleetRows, List<Object[]> bookingRows, long fromEpochDay) {
+        ConcurrentHashMap<FleetKey, Integer> freshFleet = new ConcurrentHashMap<>();
+        for (Object[] row : fleetRows) {
+            freshFleet.merge(new FleetKey((Long) row[0], key((String) row[1])),
+                    ((Long) row[2]).intValue(), Integer::sum);
+        }
+
+        ConcurrentHashMap<DayKey, AtomicInteger> freshBooked = new ConcurrentHashMap<>();
+        for (Object[] row : bookingRows) {
+            addBooking(freshBooked, (Long) row[0], (String) row[1],
+                    (LocalDateTime) row[2], (LocalDateTime) row[3], 1, fromEpochDay);
+        }
+
+        guard.exclusive(() -> {
+            fleet = freshFleet;
+            booked = freshBooked;
+        });
+        // utilization moved, and with it the dynamic prices behind the fleet ETags
+        fleetVersion.ifAvailable(FleetVersion::invalidate);
+    }
+
+    // -------------------------
+    // INTERNAL
+    // -------------------------
+
+    private static void addBooking(ConcurrentHashMap<DayKey, AtomicInteger> target, long locationId, String category,
+                                   LocalDateTime pickup, LocalDateTime dropoff, int delta, long fromEpochDay) {
+        String categoryKey = key(category);
+        long lastDay = BookingDays.lastDay(pickup, dropoff);
+        for (long day = Math.max(fromEpochDay, BookingDays.firstDay(pickup)); day <= lastDay; day++) {
+            target.computeIfAbsent(new DayKey(locationId, categoryKey, day), k -> new AtomicInteger())
+                    .updateAndGet(v -> Math.max(0, v + delta));
+        }
+    }
+
+    private static String key(String category) {
+        return category == null ? "" : category;
+    }
+}
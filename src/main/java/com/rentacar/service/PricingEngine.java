@@ -0,0 +1,80 @@
+package com.rentacar.service;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
+/**
+ * Prices rentals in long minor units. Nothing on the pricing path allocates: inputs are
+ * primitives (or read without copying) and the rules are pre-compiled, so the engine can
+ * quote thousands of cars per request without loading Reservation entities.
+ */
+public final class PricingEngine {
+
+    private static final long SECONDS_PER_DAY = 86_400L;
+
+    private final PricingRules rules;
+
+    public PricingEngine(PricingRules rules) {
+        this.rules = rules;
+    }
+
+    public PricingRules getRules() {
+        return rules;
+    }
+
+    public long priceMinor(long dailyPriceMinor, String category,
+                           LocalDateTime pickup, LocalDateTime dropoff, long extrasMinor) {
+        return priceMinor(dailyPriceMinor, category,
+                pickup.toEpochSecond(ZoneOffset.UTC), rentalDays(pickup, dropoff), extrasMinor);
+    }
+
+    public long priceMinor(long dailyPriceMinor, String category,
+                           long pickupEpochSecond, long rentalDays, long extrasMinor) {
+        return carPriceMinor(dailyPriceMinor, category, pickupEpochSecond, rentalDays) + extrasMinor;
+    }
+
+    public long carPriceMinor(long dailyPriceMinor, String category, long pickupEpochSecond, long rentalDays) {
+        long weekendDays = weekendDays(pickupEpochSecond, rentalDays);
+        long weekdayDays = rentalDays - weekendDays;
+
+        long base = weekdayDays * dailyPriceMinor
+                + applyBps(weekendDays * dailyPriceMinor, rules.weekendBps());
+        long discounted = applyBps(base, rules.lengthBps(rentalDays));
+        return applyBps(discounted, rules.categoryBps(category));
+    }
+
+    // Same whole-day count as Duration.between(pickup, dropoff).toDays()
+    public static long rentalDays(LocalDateTime pickup, LocalDateTime dropoff) {
+        long seconds = dropoff.toEpochSecond(ZoneOffset.UTC) - pickup.toEpochSecond(ZoneOffset.UTC);
+        if (dropoff.getNano() < pickup.getNano()) {
+            seconds--;
+        }
+        return seconds / SECONDS_PER_DAY;
+    }
+
+    // Rental day i is the calendar day pickup + i; Saturdays and Sundays get the weekend multiplier
+    static long weekendDays(long pickupEpochSecond, long rentalDays) {
+        if (rentalDays <= 0) {
+            return 0;
+        }
+        long epochDay = Math.floorDiv(pickupEpochSecond, SECONDS_PER_DAY);
+        int startDow = (int) Math.floorMod(epochDay + 3, 7L); // 1970-01-01 was a Thursday; Monday = 0
+
+        long weekend = (rentalDays / 7) * 2;
+        int remainder = (int) (rentalDays % 7);
+        for (int k = 0; k < remainder; k++) {
+            if ((startDow + k) % 7 >= 5) {
+                weekend++;
+            }
+        }
+        return weekend;
+    }
+
+    // Rounds half up on non-negative amounts
+    static long applyBps(long amountMinor, int bps) {
+        if (bps == PricingRules.BASE_BPS) {
+            return amountMinor;
+        }
+        return Math.floorDiv(amountMinor * bps + PricingRules.BASE_BPS / 2, PricingRules.BASE_BPS);
+    }
+}
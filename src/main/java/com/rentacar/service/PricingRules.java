@@ -0,0 +1,83 @@
+package com.rentacar.service;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Pricing rules compiled once into primitive arrays so the pricing hot path
+ * only does arithmetic and a single map lookup.
+ */
+public final class PricingRules {
+
+    public static final int BASE_BPS = 10_000;
+
+    private final int weekendBps;
+    private final int[] tierMinDays;
+    private final int[] tierBps;
+    private final Map<String, Integer> categoryBps;
+
+    private PricingRules(int weekendBps, int[] tierMinDays, int[] tierBps, Map<String, Integer> categoryBps) {
+        this.weekendBps = weekendBps;
+        this.tierMinDays = tierMinDays;
+        this.tierBps = tierBps;
+        this.categoryBps = categoryBps;
+    }
+
+    public static PricingRules flat() {
+        return compile(BASE_BPS, Map.of(), Map.of());
+    }
+
+    public static PricingRules compile(int weekendBps,
+                                       Map<Integer, Integer> lengthOfRentalTiers,
+                                       Map<String, Integer> categoryMultipliers) {
+        requirePositive(weekendBps, "weekend multiplier");
+
+        TreeMap<Integer, Integer> sortedTiers = new TreeMap<>(lengthOfRentalTiers);
+        int[] minDays = new int[sortedTiers.size()];
+        int[] bps = new int[sortedTiers.size()];
+        int i = 0;
+        for (Map.Entry<Integer, Integer> tier : sortedTiers.entrySet()) {
+            requirePositive(tier.getValue(), "length-of-rental multiplier");
+            minDays[i] = tier.getKey();
+            bps[i] = tier.getValue();
+            i++;
+        }
+
+        Map<String, Integer> categories = new HashMap<>();
+        categoryMultipliers.forEach((category, multiplier) -> {
+            requirePositive(multiplier, "category multiplier");
+            categories.put(category, multiplier);
+        });
+
+        return new PricingRules(weekendBps, minDays, bps, categories);
+    }
+
+    public int weekendBps() {
+        return weekendBps;
+    }
+
+    // Highest tier whose minimum is reached
+    public int lengthBps(long days) {
+        for (int i = tierMinDays.length - 1; i >= 0; i--) {
+            if (days >= tierMinDays[i]) {
+                return tierBps[i];
+            }
+        }
+        return BASE_BPS;
+    }
+
+    public int categoryBps(String category) {
+        if (category == null) {
+            return BASE_BPS;
+        }
+        Integer bps = categoryBps.get(category);
+        return bps == null ? BASE_BPS : bps;
+    }
+
+    private static void requirePositive(Integer bps, String name) {
+        if (bps == null || bps <= 0) {
+            throw new IllegalArgumentException("Invalid " + name + ": " + bps);
+        }
+    }
+}
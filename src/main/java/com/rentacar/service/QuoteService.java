@@ -0,0 +1,144 @@
+package com.rentacar.service;
+
+import com.rentacar.dto.DateRangeDTO;
+import com.rentacar.dto.QuoteRequestDTO;
+import com.rentacar.dto.QuoteResponseDTO;
+import com.rentacar.model.Extra;
+import com.rentacar.repository.CarRepository;
+import com.rentacar.repository.ExtraRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+@Service
+@RequiredArgsConstructor
+@Transactional(readOnly = true)
+public class QuoteService {
+
+    // cars x date ranges of one request
+    public static final int MAX_CELLS = 10_000;
+
+    private final CarRepository carRepository;
+    private final ExtraRepository extraRepository;
+    private final PricingEngine pricingEngine;
+    private final DynamicPricing dynamicPricing;
+
+    public QuoteResponseDTO quote(QuoteRequestDTO request) {
+        List<String> requestedBarcodes = request.getCarBarcodes() == null ? List.of() : request.getCarBarcodes();
+        List<DateRangeDTO> ranges = request.getDateRanges() == null ? List.of() : request.getDateRanges();
+
+        for (DateRangeDTO range : ranges) {
+            if (range.getPickupDateTime() == null || range.getDropoffDateTime() == null) {
+                throw new IllegalArgumentException("Every date range needs a pickup and a dropoff date");
+            }
+            if (!range.getDropoffDateTime().isAfter(range.getPickupDateTime())) {
+                throw new IllegalArgumentException("Dropoff must be after pickup in every date range");
+            }
+        }
+
+        Set<String> distinctBarcodes = new LinkedHashSet<>(requestedBarcodes);
+        if ((long) distinctBarcodes.size() * ranges.size() > MAX_CELLS) {
+            throw new IllegalArgumentException("At most " + MAX_CELLS + " cars x date ranges per quote");
+        }
+
+        // One query for all daily prices, one for all extras
+        Map<String, Object[]> pricingByBarcode = new HashMap<>();
+        if (!distinctBarcodes.isEmpty()) {
+            for (Object[] row : carRepository.findPricingByBarcodeIn(distinctBarcodes)) {
+                pricingByBarcode.put((String) row[0], row);
+            }
+        }
+
+        long extrasMinor = resolveExtrasMinor(request.getExtraCodes());
+
+        List<String> barcodes = new ArrayList<>();
+        List<String> notFound = new ArrayList<>();
+        for (String barcode : distinctBarcodes) {
+            if (pricingByBarcode.containsKey(barcode)) {
+                barcodes.add(barcode);
+            } else {
+                notFound.add(barcode);
+            }
+        }
+
+        int carCount = barcodes.size();
+        int rangeCount = ranges.size();
+
+        long[] dailyMinor = new long[carCount];
+        String[] categories = new String[carCount];
+        Long[] locationIds = new Long[carCount];
+        for (int i = 0; i < carCount; i++) {
+            Object[] row = pricingByBarcode.get(barcodes.get(i));
+            dailyMinor[i] = Money.toMinor((Double) row[1]);
+            categories[i] = (String) row[2];
+            locationIds[i] = (Long) row[3];
+        }
+
+        long[] pickupEpochSeconds = new long[rangeCount];
+        long[] pickupEpochDays = new long[rangeCount];
+        long[] rentalDays = new long[rangeCount];
+        for (int j = 0; j < rangeCount; j++) {
+            DateRangeDTO range = ranges.get(j);
+            pickupEpochSeconds[j] = range.getPickupDateTime().toEpochSecond(ZoneOffset.UTC);
+            pickupEpochDays[j] = range.getPickupDateTime().toLocalDate().toEpochDay();
+            rentalDays[j] = PricingEngine.rentalDays(range.getPickupDateTime(), range.getDropoffDateTime());
+        }
+
+        // Single pass over primitive arrays; no entities or boxing inside the loop
+        boolean dynamic = dynamicPricing.isEnabled();
+        double[][] totals = new double[carCount][rangeCount];
+        for (int i = 0; i < carCount; i++) {
+            String category = categories[i];
+            double[] row = totals[i];
+            for (int j = 0; j < rangeCount; j++) {
+                long daily = dynamic
+                        ? dynamicPricing.adjustDailyMinor(dailyMinor[i], locationIds[i], category, pickupEpochDays[j])
+                        : dailyMinor[i];
+                row[j] = Money.toMajor(pricingEngine.priceMinor(
+                        daily, category, pickupEpochSeconds[j], rentalDays[j], extrasMinor));
+            }
+        }
+
+        QuoteResponseDTO response = new QuoteResponseDTO();
+        response.setCarBarcodes(barcodes);
+        response.setDateRanges(ranges);
+        response.setTotalAmounts(totals);
+        response.setNotFoundBarcodes(notFound);
+        return response;
+    }
+
+    private long resolveExtrasMinor(List<String> extraCodes) {
+        if (extraCodes == null || extraCodes.isEmpty()) {
+            return 0L;
+        }
+
+        Set<String> distinctCodes = new LinkedHashSet<>(extraCodes);
+        if (distinctCodes.size() != extraCodes.size()) {
+            throw new IllegalArgumentException("An extra can be quoted only once");
+        }
+
+        Map<String, Extra> extrasByName = new HashMap<>();
+        for (Extra extra : extraRepository.findByNameIn(distinctCodes)) {
+            extrasByName.put(extra.getName(), extra);
+        }
+
+        long total = 0L;
+        for (String extraCode : extraCodes) {
+            Extra extra = extrasByName.get(extraCode);
+            if (extra == null) {
+                throw new NoSuchElementException("Extra not found: " + extraCode);
+            }
+            total += Money.toMinor(extra.getPrice());
+        }
+        return total;
+    }
+}
@@ -0,0 +1,85 @@
+package com.rentacar.service;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Orders the deltas of an in-memory counter table against full rebuilds of the same table.
+ * A transaction that applies a delta after commit holds the shared side from beforeCommit until
+ * it has completed, so its commit and its delta are a single step as far as a rebuild is
+ * concerned; a rebuild holds the exclusive side while it queries the database and publishes the
+ * fresh table. Every commit is therefore either in the rebuild's query results or applied to the
+ * fresh table, never both and never neither. Rebuilds run rarely, so deltas almost never wait.
+ */
+final class RebuildGuard {
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // Applies the delta once the surrounding transaction commits, or immediately when there is none
+    void afterCommit(Runnable delta) {
+        holdAcrossCommit();
+        TransactionHooks.afterCommit(() -> shared(delta));
+    }
+
+    // Undoes an in-memory change made before commit if the surrounding transaction rolls back
+    void afterRollback(Runnable undo) {
+        TransactionHooks.afterRollback(() -> shared(undo));
+    }
+
+    void shared(Runnable action) {
+        lock.readLock().lock();
+        try {
+            action.run();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    void exclusive(Runnable rebuild) {
+        lock.writeLock().lock();
+        try {
+            rebuild.run();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Once per transaction; looked up among the synchronizations so it survives REQUIRES_NEW suspension
+    private void holdAcrossCommit() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+            if (synchronization instanceof CommitHold hold && hold.guard() == this) {
+                return;
+            }
+        }
+        TransactionSynchronizationManager.registerSynchronization(new CommitHold());
+    }
+
+    private final class CommitHold implements TransactionSynchronization {
+
+        private boolean held;
+
+        RebuildGuard guard() {
+            return RebuildGuard.this;
+        }
+
+        @Override
+        public void beforeCommit(boolean readOnly) {
+            lock.readLock().lock();
+            held = true;
+        }
+
+        // after every afterCommit callback of the transaction, so its deltas run under the hold
+        @Override
+        public void afterCompletion(int status) {
+            if (held) {
+                held = false;
+                lock.readLock().unlock();
+            }
+        }
+    }
+}
@@ -1,10 +1,12 @@
 package com.rentacar.service;
 
+import com.rentacar.dto.ReservationHistoryPageDTO;
 import com.rentacar.dto.ReservationRequestDTO;
 import com.rentacar.dto.ReservationResponseDTO;
 import com.rentacar.model.*;
 import com.rentacar.repository.*;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -18,32 +20,44 @@ import java.util.Random;
 @Transactional
 public class ReservationService {
 
+    private static final int MAX_HISTORY_PAGE_SIZE = 100;
+
     private final ReservationRepository reservationRepository;
     private final CarRepository carRepository;
     private final MemberRepository memberRepository;
     private final LocationRepository locationRepository;
     private final ExtraRepository extraRepository;
+    private final LocationCounters locationCounters;
+    private final ExtraInventory extraInventory;
+    private final ExtraCatalog extraCatalog;
+    private final PricingEngine pricingEngine;
+    private final OccupancyCounters occupancyCounters;
+    private final DynamicPricing dynamicPricing;
 
     // -------------------------
     // BASIC RESERVATION METHODS
     // -------------------------
 
+    @Transactional(readOnly = true)
     public List<Reservation> getAllReservations() {
         return reservationRepository.findAll();
     }
 
+    @Transactional(readOnly = true)
     public Reservation getReservationById(Long id) {
         return reservationRepository.findById(id)
                 .orElseThrow(() ->
                         new RuntimeException("Reservation not found with id: " + id));
     }
 
+    @Transactional(readOnly = true)
     public Reservation getReservationByNumber(String reservationNumber) {
         return reservationRepository.findByReservationNumber(reservationNumber)
                 .orElseThrow(() ->
                         new RuntimeException("Reservation not found with number: " + reservationNumber));
     }
 
+    @Transactional(readOnly = true)
     public List<Reservation> getReservationsByStatus(ReservationStatus status) {
         return reservationRepository.findByStatus(status);
     }
@@ -59,20 +73,46 @@ public class ReservationService {
                                        LocalDateTime dropoffDate,
                                        List<Long> extraIds) {
 
+        BookingEvents.Reservation event = new BookingEvents.Reservation();
+        event.begin();
+        event.carId = carId;
+        try {
+            Reservation reservation = makeReservation(carId, memberId, pickupLocationCode,
+                    dropoffLocationCode, pickupDate, dropoffDate, extraIds, event);
+            event.booked = true;
+            return reservation;
+        } finally {
+            event.commit();
+        }
+    }
+
+    private Reservation makeReservation(Long carId, Long memberId,
+                                        String pickupLocationCode,
+                                        String dropoffLocationCode,
+                                        LocalDateTime pickupDate,
+                                        LocalDateTime dropoffDate,
+                                        List<Long> extraIds,
+                                        BookingEvents.Reservation event) {
+
+        BookingEvents.ReservationPhase phase = BookingEvents.phase("lookup");
         Car car = carRepository.findById(carId)
                 .orElseThrow(() -> new RuntimeException("Car not found"));
+        phase.commit();
 
         if (!"AVAILABLE".equals(car.getStatus())) {
             throw new RuntimeException("Car is not available for reservation");
         }
 
+        phase = BookingEvents.phase("conflict-check");
         boolean hasConflict =
                 reservationRepository.existsActiveReservationForCar(carId, pickupDate, dropoffDate);
+        phase.commit();
 
         if (hasConflict) {
             throw new RuntimeException("Car is already reserved for the selected dates");
         }
 
+        phase = BookingEvents.phase("lookup");
         Member member = memberRepository.findById(memberId)
                 .orElseThrow(() -> new RuntimeException("Member not found"));
 
@@ -81,9 +121,14 @@ public class ReservationService {
 
         Location dropoffLocation = locationRepository.findByCode(dropoffLocationCode)
                 .orElseThrow(() -> new RuntimeException("Dropoff location not found"));
+        phase.commit();
 
+        phase = BookingEvents.phase("number");
         Reservation reservation = new Reservation();
         reservation.setReservationNumber(generateReservationNumber());
+        event.reservationNumber = reservation.getReservationNumber();
+        phase.commit();
+
         reservation.setCar(car);
         reservation.setMember(member);
         reservation.setPickupLocation(pickupLocation);
@@ -97,11 +142,25 @@ public class ReservationService {
             List<Extra> extras = extraRepository.findAllById(extraIds);
             reservation.setExtras(extras);
         }
+        reservation.setExtrasMask(extraCatalog.maskOf(reservation.getExtras()));
+
+        if (!extraInventory.reserve(reservation.getExtras(), pickupLocation, pickupDate, dropoffDate)) {
+            throw new RuntimeException("Extra is out of stock for the selected dates");
+        }
+        snapshotPrice(reservation);
 
+        locationCounters.carChanged(car.getLocation(), car.getStatus(), car.getLocation(), "RESERVED");
         car.setStatus("RESERVED");
+
+        // the INSERT/UPDATE statements themselves run in the JDBC batch at commit
+        phase = BookingEvents.phase("save");
         carRepository.save(car);
+        Reservation saved = reservationRepository.save(reservation);
+        phase.commit();
 
-        return reservationRepository.save(reservation);
+        locationCounters.reservationCreated(pickupLocation, dropoffLocation, pickupDate, dropoffDate);
+        occupancyCounters.reservationCreated(pickupLocation, car.getCategory(), pickupDate, dropoffDate);
+        return saved;
     }
 
     // -------------------------
@@ -113,11 +172,13 @@ public class ReservationService {
         Extra extra = extraRepository.findById(extraId)
                 .orElseThrow(() -> new RuntimeException("Extra not found"));
 
-        if (reservation.getExtras().contains(extra)) {
+        if (reservation.getExtras().contains(extra) || !reserveExtra(reservation, extra)) {
             return false;
         }
 
         reservation.getExtras().add(extra);
+        reservation.setExtrasMask(extraCatalog.maskWith(reservation.getExtrasMask(), extra));
+        addExtraLine(reservation, extra);
         reservationRepository.save(reservation);
         return true;
     }
@@ -129,15 +190,25 @@ public class ReservationService {
         Extra extra = extraRepository.findByName(extraCode)
                 .orElse(null);
 
-        if (extra == null || reservation.getExtras().contains(extra)) {
+        if (extra == null || reservation.getExtras().contains(extra) || !reserveExtra(reservation, extra)) {
             return false;
         }
 
         reservation.getExtras().add(extra);
+        reservation.setExtrasMask(extraCatalog.maskWith(reservation.getExtrasMask(), extra));
+        addExtraLine(reservation, extra);
         reservationRepository.save(reservation);
         return true;
     }
 
+    private boolean reserveExtra(Reservation reservation, Extra extra) {
+        if (reservation.getStatus() != ReservationStatus.ACTIVE) {
+            return true;
+        }
+        return extraInventory.reserve(List.of(extra), reservation.getPickupLocation(),
+                reservation.getPickupDate(), reservation.getDropoffDate());
+    }
+
     // -------------------------
     // RESERVATION STATE CHANGES
     // -------------------------
@@ -152,6 +223,13 @@ public class ReservationService {
         reservation.setStatus(ReservationStatus.CANCELLED);
 
         Car car = reservation.getCar();
+        locationCounters.carChanged(car.getLocation(), car.getStatus(), car.getLocation(), "AVAILABLE");
+        locationCounters.reservationClosed(reservation.getPickupLocation(), reservation.getDropoffLocation(),
+                reservation.getPickupDate(), reservation.getDropoffDate());
+        extraInventory.release(reservation.getExtras(), reservation.getPickupLocation(),
+                reservation.getPickupDate(), reservation.getDropoffDate());
+        occupancyCounters.reservationReleased(reservation.getPickupLocation(), car.getCategory(),
+                reservation.getPickupDate(), reservation.getDropoffDate());
         car.setStatus("AVAILABLE");
         carRepository.save(car);
 
@@ -170,6 +248,13 @@ public class ReservationService {
         reservation.setReturnDate(LocalDateTime.now());
 
         Car car = reservation.getCar();
+        locationCounters.carChanged(car.getLocation(), car.getStatus(), reservation.getDropoffLocation(), "AVAILABLE");
+        locationCounters.reservationClosed(reservation.getPickupLocation(), reservation.getDropoffLocation(),
+                reservation.getPickupDate(), reservation.getDropoffDate());
+        extraInventory.release(reservation.getExtras(), reservation.getPickupLocation(),
+                reservation.getPickupDate(), reservation.getDropoffDate());
+        occupancyCounters.reservationReleased(reservation.getPickupLocation(), car.getCategory(),
+                reservation.getPickupDate(), reservation.getDropoffDate());
         car.setStatus("AVAILABLE");
         car.setLocation(reservation.getDropoffLocation());
         carRepository.save(car);
@@ -185,11 +270,14 @@ public class ReservationService {
             return false;
         }
 
+        locationCounters.reservationDeleted(reservation.getPickupLocation(), reservation.getDropoffLocation());
+
         reservation.setCar(null);
         reservation.setMember(null);
         reservation.setPickupLocation(null);
         reservation.setDropoffLocation(null);
         reservation.getExtras().clear();
+        reservation.setExtrasMask(0L);
 
         reservationRepository.delete(reservation);
         return true;
@@ -199,17 +287,88 @@ public class ReservationService {
     // QUERY / HELPER METHODS
     // -------------------------
 
+    @Transactional(readOnly = true)
     public List<Reservation> getCurrentlyActiveReservations() {
         return reservationRepository.findCurrentlyActiveReservations();
     }
 
+    @Transactional(readOnly = true)
     public List<Car> getAllRentedCars() {
         return carRepository.findCurrentlyRentedCars();
     }
 
+    @Transactional(readOnly = true)
     public Double calculateTotalPrice(String reservationNumber) {
         Reservation reservation = getReservationByNumber(reservationNumber);
-        return reservation.calculateTotalPrice();
+        return totalPrice(reservation);
+    }
+
+    // Snapshot first; only reservations booked before snapshots existed are repriced.
+    // In bitmask mode extras are priced from the mask, without loading the extras collection
+    private Double totalPrice(Reservation reservation) {
+        if (reservation.getTotalPriceMinor() != null) {
+            return Money.toMajor(reservation.getTotalPriceMinor());
+        }
+
+        long extrasMinor;
+        if (extraCatalog.isBitmaskMode()) {
+            extrasMinor = extraCatalog.priceMinorOfMask(reservation.getExtrasMask());
+        } else {
+            extrasMinor = 0L;
+            for (Extra extra : reservation.getExtras()) {
+                extrasMinor += Money.toMinor(extra.getPrice());
+            }
+        }
+
+        Car car = reservation.getCar();
+        long totalMinor = pricingEngine.priceMinor(Money.toMinor(car.getDailyPrice()), car.getCategory(),
+                reservation.getPickupDate(), reservation.getDropoffDate(), extrasMinor);
+        return Money.toMajor(totalMinor);
+    }
+
+    // -------------------------
+    // PRICE SNAPSHOT
+    // -------------------------
+
+    // Same daily price as search and quote: adjusted for the utilization of the car's location on
+    // the pickup day, before this booking is counted
+    private void snapshotPrice(Reservation reservation) {
+        Car car = reservation.getCar();
+        long dailyMinor = Money.toMinor(car.getDailyPrice());
+        if (dynamicPricing.isEnabled() && car.getLocation() != null) {
+            dailyMinor = dynamicPricing.adjustDailyMinor(dailyMinor, car.getLocation().getId(), car.getCategory(),
+                    reservation.getPickupDate().toLocalDate().toEpochDay());
+        }
+        long carMinor = pricingEngine.priceMinor(dailyMinor, car.getCategory(),
+                reservation.getPickupDate(), reservation.getDropoffDate(), 0L);
+
+        List<PriceLine> lines = new ArrayList<>();
+        lines.add(new PriceLine("Car " + car.getBarcode() + ", " + reservation.getDayCount() + " days", carMinor));
+
+        long extrasMinor = 0L;
+        for (Extra extra : reservation.getExtras()) {
+            long amount = Money.toMinor(extra.getPrice());
+            lines.add(new PriceLine(extra.getName(), amount));
+            extrasMinor += amount;
+        }
+
+        reservation.setCarPriceMinor(carMinor);
+        reservation.setExtrasPriceMinor(extrasMinor);
+        reservation.setTotalPriceMinor(carMinor + extrasMinor);
+        reservation.setPriceLines(lines);
+    }
+
+    // Called after the extra is added to the reservation
+    private void addExtraLine(Reservation reservation, Extra extra) {
+        if (reservation.getTotalPriceMinor() == null) {
+            snapshotPrice(reservation);
+            return;
+        }
+
+        long amount = Money.toMinor(extra.getPrice());
+        reservation.getPriceLines().add(new PriceLine(extra.getName(), amount));
+        reservation.setExtrasPriceMinor(reservation.getExtrasPriceMinor() + amount);
+        reservation.setTotalPriceMinor(reservation.getTotalPriceMinor() + amount);
     }
 
     // -------------------------
@@ -218,25 +377,45 @@ public class ReservationService {
 
     public ReservationResponseDTO makeReservation(ReservationRequestDTO request) {
 
+        BookingEvents.Reservation event = new BookingEvents.Reservation();
+        event.begin();
+        try {
+            ReservationResponseDTO response = makeReservation(request, event);
+            event.booked = response != null;
+            return response;
+        } finally {
+            event.commit();
+        }
+    }
+
+    private ReservationResponseDTO makeReservation(ReservationRequestDTO request,
+                                                   BookingEvents.Reservation event) {
+
+        BookingEvents.ReservationPhase phase = BookingEvents.phase("lookup");
         Car car = carRepository.findByBarcode(request.getCarBarcode())
                 .orElseThrow(() ->
                         new RuntimeException("Car not found with barcode: " + request.getCarBarcode()));
+        event.carId = car.getId();
+        phase.commit();
 
         if (!"AVAILABLE".equals(car.getStatus())) {
             return null;
         }
 
+        phase = BookingEvents.phase("conflict-check");
         boolean hasConflict =
                 reservationRepository.existsActiveReservationForCar(
                         car.getId(),
                         request.getPickupDateTime(),
                         request.getDropoffDateTime()
                 );
+        phase.commit();
 
         if (hasConflict) {
             return null;
         }
 
+        phase = BookingEvents.phase("lookup");
         Member member = memberRepository.findById(request.getMemberId())
                 .orElseThrow(() -> new RuntimeException("Member not found"));
 
@@ -245,9 +424,14 @@ public class ReservationService {
 
         Location dropoffLocation = locationRepository.findByCode(request.getDropoffLocationCode())
                 .orElseThrow(() -> new RuntimeException("Dropoff location not found"));
+        phase.commit();
 
+        phase = BookingEvents.phase("number");
         Reservation reservation = new Reservation();
         reservation.setReservationNumber(generateReservationNumber());
+        event.reservationNumber = reservation.getReservationNumber();
+        phase.commit();
+
         reservation.setCar(car);
         reservation.setMember(member);
         reservation.setPickupLocation(pickupLocation);
@@ -267,9 +451,72 @@ public class ReservationService {
             }
             reservation.setExtras(extras);
         }
+        reservation.setExtrasMask(extraCatalog.maskOf(reservation.getExtras()));
+
+        if (!extraInventory.reserve(reservation.getExtras(), pickupLocation,
+                request.getPickupDateTime(), request.getDropoffDateTime())) {
+            return null;
+        }
+        snapshotPrice(reservation);
 
+        phase = BookingEvents.phase("save");
         reservationRepository.save(reservation);
+        phase.commit();
+
+        locationCounters.reservationCreated(pickupLocation, dropoffLocation,
+                request.getPickupDateTime(), request.getDropoffDateTime());
+        occupancyCounters.reservationCreated(pickupLocation, car.getCategory(),
+                request.getPickupDateTime(), request.getDropoffDateTime());
+
+        return toResponseDTO(reservation);
+    }
+
+    // -------------------------
+    // MEMBER HISTORY (KEYSET PAGINATION)
+    // -------------------------
+
+    @Transactional(readOnly = true)
+    public ReservationHistoryPageDTO getMemberReservationHistory(Long memberId,
+                                                                 LocalDateTime beforeCreationDate,
+                                                                 Long beforeId,
+                                                                 int size) {
+
+        int pageSize = Math.max(1, Math.min(size, MAX_HISTORY_PAGE_SIZE));
+        Limit limit = Limit.of(pageSize + 1);
+
+        List<Reservation> rows;
+        if (beforeCreationDate == null || beforeId == null) {
+            rows = reservationRepository.findHistoryByMemberId(memberId, limit);
+        } else {
+            rows = reservationRepository.findHistoryByMemberIdBefore(
+                    memberId, beforeCreationDate, beforeId, limit);
+        }
+
+        boolean hasMore = rows.size() > pageSize;
+        if (hasMore) {
+            rows = rows.subList(0, pageSize);
+        }
+
+        List<ReservationResponseDTO> reservations = new ArrayList<>(rows.size());
+        for (Reservation reservation : rows) {
+            reservations.add(toResponseDTO(reservation));
+        }
+
+        ReservationHistoryPageDTO page = new ReservationHistoryPageDTO();
+        page.setReservations(reservations);
+        page.setHasMore(hasMore);
+
+        if (hasMore) {
+            Reservation last = rows.get(rows.size() - 1);
+            page.setNextCreationDate(last.getCreationDate());
+            page.setNextId(last.getId());
+        }
+
+        return page;
+    }
 
+    // package-private for HotPathBenchmark
+    ReservationResponseDTO toResponseDTO(Reservation reservation) {
         ReservationResponseDTO response = new ReservationResponseDTO();
         response.setReservationNumber(reservation.getReservationNumber());
         response.setPickupDateTime(reservation.getPickupDate());
@@ -278,7 +525,7 @@ public class ReservationService {
         response.setPickupLocationName(reservation.getPickupLocation().getName());
         response.setDropoffLocationCode(reservation.getDropoffLocation().getCode());
         response.setDropoffLocationName(reservation.getDropoffLocation().getName());
-        response.setTotalAmount(reservation.calculateTotalPrice());
+        response.setTotalAmount(totalPrice(reservation));
         response.setMemberId(reservation.getMember().getId());
         response.setMemberName(reservation.getMember().getName());
 
@@ -289,7 +536,8 @@ public class ReservationService {
     // INTERNAL UTILITY
     // -------------------------
 
-    private String generateReservationNumber() {
+    // package-private for HotPathBenchmark
+    String generateReservationNumber() {
         Random random = new Random();
         String number;
         do {
@@ -0,0 +1,211 @@
+package com.rentacar;
+
+import com.rentacar.config.BulkheadConfig;
+import com.rentacar.config.BulkheadFilter;
+import com.rentacar.config.BulkheadProperties;
+import com.rentacar.service.FleetVersion;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletRequest;
+import jakarta.servlet.ServletResponse;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.*;
+
+class BulkheadFilterTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private final CountDownLatch release = new CountDownLatch(1);
+
+    private static final String CURRENT_ETAG = "W/\"fleet-1-json\"";
+
+    private BulkheadFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        BulkheadProperties properties = new BulkheadProperties();
+        properties.setSearch(new BulkheadProperties.Limit(1, Duration.ofMillis(50)));
+        properties.setReservations(new BulkheadProperties.Limit(1, Duration.ofSeconds(5)));
+        properties.setOther(new BulkheadProperties.Limit(0, Duration.ofMillis(50)));
+        filter = new BulkheadFilter(properties, 2,
+                request -> CURRENT_ETAG.equals(request.getHeader("If-None-Match")), registry);
+    }
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        executor.shutdown();
+    }
+
+    @Test
+    void saturatedSearch_RejectsAfterMaxWait_WhileBookingsPass() throws Exception {
+        Future<MockHttpServletResponse> held = executor.submit(() ->
+                send("POST", "/api/cars/search", (req, res) -> release.await()));
+        awaitGauge("rentacar.bulkhead.active", "search", 1);
+
+        MockHttpServletResponse rejected = send("GET", "/api/cars/search", (req, res) -> { });
+        assertThat(rejected.getStatus()).isEqualTo(503);
+        assertThat(rejected.getHeader("Retry-After")).isEqualTo("1");
+        assertThat(waitTimer("search", "rejected").count()).isEqualTo(1);
+        assertThat(waitTimer("search", "rejected").totalTime(TimeUnit.MILLISECONDS))
+                .isGreaterThanOrEqualTo(50);
+
+        // separate bulkheads are not affected
+        assertThat(send("POST", "/api/reservations", (req, res) -> { }).getStatus()).isEqualTo(200);
+        assertThat(send("GET", "/api/cars/rented", (req, res) -> { }).getStatus()).isEqualTo(200);
+
+        release.countDown();
+        assertThat(held.get().getStatus()).isEqualTo(200);
+        assertThat(registry.get("rentacar.bulkhead.active").tag("bulkhead", "search").gauge().value()).isZero();
+    }
+
+    @Test
+    void queuedRequest_GetsPermitWhenReleased_AndRecordsWait() throws Exception {
+        Future<MockHttpServletResponse> held = executor.submit(() ->
+                send("POST", "/api/reservations", (req, res) -> release.await()));
+        awaitGauge("rentacar.bulkhead.active", "reservations", 1);
+
+        Future<MockHttpServletResponse> queued = executor.submit(() ->
+                send("POST", "/api/reservations/R1/cancel", (req, res) -> { }));
+        awaitGauge("rentacar.bulkhead.queued", "reservations", 1);
+
+        release.countDown();
+        assertThat(held.get().getStatus()).isEqualTo(200);
+        assertThat(queued.get().getStatus()).isEqualTo(200);
+        assertThat(waitTimer("reservations", "acquired").count()).isEqualTo(2);
+        assertThat(waitTimer("reservations", "rejected").count()).isZero();
+    }
+
+    @Test
+    void saturatedOtherPaths_RejectAfterMaxWait_ButNotDocsOrRevalidations() throws Exception {
+        CountDownLatch entered = new CountDownLatch(2);
+        List<Future<MockHttpServletResponse>> held = new ArrayList<>();
+        for (int i = 0; i < 2; i++) {
+            held.add(executor.submit(() -> send("GET", "/api/cars/rented", (req, res) -> {
+                entered.countDown();
+                release.await();
+            })));
+        }
+        assertThat(entered.await(5, TimeUnit.SECONDS)).isTrue();
+
+        assertThat(send("GET", "/api/members/1", (req, res) -> { }).getStatus()).isEqualTo(503);
+        assertThat(send("GET", "/api/cars/search", (req, res) -> { }).getStatus()).isEqualTo(200);
+        // no database behind these, so no permit
+        assertThat(send("GET", "/v3/api-docs", (req, res) -> { }).getStatus()).isEqualTo(200);
+        assertThat(send("GET", "/swagger-ui/index.html", (req, res) -> { }).getStatus()).isEqualTo(200);
+        assertThat(send("GET", "/actuator/health", (req, res) -> { }).getStatus()).isEqualTo(200);
+        assertThat(send("GET", "/api/cars/rented", (req, res) -> { }, "If-None-Match", CURRENT_ETAG).getStatus())
+                .isEqualTo(200);
+
+        release.countDown();
+        for (Future<MockHttpServletResponse> response : held) {
+            assertThat(response.get().getStatus()).isEqualTo(200);
+        }
+    }
+
+    @Test
+    void listingEndpoints_RunAsManyAtOnceAsThePoolHasConnections() throws Exception {
+        SimpleMeterRegistry defaults = new SimpleMeterRegistry();
+        filter = new BulkheadConfig().bulkheadFilter(new BulkheadProperties(), defaults,
+                new StaticListableBeanFactory(Map.of("dataSource", pool(10))).getBeanProvider(HikariDataSource.class),
+                new StaticListableBeanFactory().getBeanProvider(FleetVersion.class));
+        List<String> listings = List.of("/api/cars", "/api/cars/rented", "/api/members", "/api/locations",
+                "/api/extras");
+
+        CountDownLatch entered = new CountDownLatch(10);
+        List<Future<MockHttpServletResponse>> held = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            String uri = listings.get(i % listings.size());
+            held.add(executor.submit(() -> send("GET", uri, (req, res) -> {
+                entered.countDown();
+                release.await();
+            })));
+        }
+
+        // all ten hold a permit at the same time; none queues
+        assertThat(entered.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(defaults.get("rentacar.bulkhead.queued").tag("bulkhead", "other").gauge().value()).isZero();
+
+        release.countDown();
+        for (Future<MockHttpServletResponse> response : held) {
+            assertThat(response.get().getStatus()).isEqualTo(200);
+        }
+    }
+
+    @Test
+    void bulkheads_AreSizedByTheSmallerPool_WhenReplicaIsEnabled() {
+        BulkheadProperties properties = new BulkheadProperties();
+        StaticListableBeanFactory pools = new StaticListableBeanFactory(Map.of(
+                "primaryDataSource", pool(10), "replicaDataSource", pool(7)));
+
+        assertThatIllegalStateException()
+                .isThrownBy(() -> new BulkheadConfig().bulkheadFilter(properties, registry,
+                        pools.getBeanProvider(HikariDataSource.class),
+                        new StaticListableBeanFactory().getBeanProvider(FleetVersion.class)))
+                .withMessageContaining("connection pool has 7 connections");
+    }
+
+    private static HikariDataSource pool(int maximumPoolSize) {
+        HikariDataSource pool = new HikariDataSource();
+        pool.setMaximumPoolSize(maximumPoolSize);
+        return pool;
+    }
+
+    // headers as name/value pairs
+    private MockHttpServletResponse send(String method, String uri, Handler handler, String... headers)
+            throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest(method, uri);
+        for (int i = 0; i < headers.length; i += 2) {
+            request.addHeader(headers[i], headers[i + 1]);
+        }
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        FilterChain chain = new MockFilterChain() {
+            @Override
+            public void doFilter(ServletRequest req, ServletResponse res) {
+                try {
+                    handler.handle(req, res);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        };
+        filter.doFilter(request, response, chain);
+        return response;
+    }
+
+    private Timer waitTimer(String bulkhead, String outcome) {
+        return registry.get("rentacar.bulkhead.wait").tag("bulkhead", bulkhead).tag("outcome", outcome).timer();
+    }
+
+    private void awaitGauge(String name, String bulkhead, double value) throws InterruptedException {
+        for (int i = 0; i < 200 && registry.get(name).tag("bulkhead", bulkhead).gauge().value() < value; i++) {
+            Thread.sleep(10);
+        }
+        assertThat(registry.get(name).tag("bulkhead", bulkhead).gauge().value()).isEqualTo(value);
+    }
+
+    @FunctionalInterface
+    private interface Handler {
+        void handle(ServletRequest request, ServletResponse response)
+                throws InterruptedException;
+    }
+}
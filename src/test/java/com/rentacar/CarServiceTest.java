@@ -1,22 +1,46 @@
 package com.rentacar;
 
+import com.rentacar.config.CacheConfig;
+import com.rentacar.config.ObservabilityConfig;
+import com.rentacar.config.PricingConfig;
+import com.rentacar.dto.CarResponseDTO;
+import com.rentacar.dto.CarSearchRequestDTO;
+import com.rentacar.dto.RentedCarDTO;
 import com.rentacar.model.Car;
 import com.rentacar.model.Location;
+import com.rentacar.model.Member;
+import com.rentacar.model.Reservation;
+import com.rentacar.model.ReservationStatus;
 import com.rentacar.repository.CarRepository;
 import com.rentacar.repository.LocationRepository;
+import com.rentacar.repository.MemberRepository;
+import com.rentacar.repository.ReservationRepository;
 import com.rentacar.service.CarService;
+import com.rentacar.service.LocationCounters;
+import com.rentacar.service.OccupancyCounters;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
 import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 import static org.assertj.core.api.Assertions.*;
 
-@DataJpaTest
-@Import(CarService.class)
+@DataJpaTest(showSql = false)
+@ActiveProfiles("test")
+@Import({CarService.class, LocationCounters.class, OccupancyCounters.class, PricingConfig.class, CacheConfig.class,
+        ObservabilityConfig.class, SimpleMeterRegistry.class})
 class CarServiceTest {
 
     @Autowired
@@ -28,6 +52,18 @@ class CarServiceTest {
     @Autowired
     private LocationRepository locationRepository;
 
+    @Autowired
+    private MemberRepository memberRepository;
+
+    @Autowired
+    private ReservationRepository reservationRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
     private Location testLocation;
 
     @BeforeEach
@@ -112,6 +148,11 @@ class CarServiceTest {
 
         assertThat(cars).hasSize(2);
         assertThat(cars).extracting(Car::getBarcode).contains("CAR001", "CAR002");
+
+        OperationCost.measureWarm(entityManager, carService::getAllCars)
+                .statementsAtMost(1)
+                .collectionFetchesAtMost(0)
+                .allocatedAtMost(100_000);
     }
 
     @Test
@@ -185,4 +226,160 @@ class CarServiceTest {
         assertThat(updated.getStatus()).isEqualTo("RESERVED");
         assertThat(carRepository.findById(car.getId()).get().getStatus()).isEqualTo("RESERVED");
     }
-}
\ No newline at end of file
+
+    @Test
+    void searchAvailableCars_ReturnsMatchingAvailableCarsAsDtos() {
+        Car available = new Car();
+        available.setBarcode("SRCH001");
+        available.setLicensePlate("34SRCH1");
+        available.setBrand("Toyota");
+        available.setModel("Corolla");
+        available.setNumberOfSeats(5);
+        available.setTransmissionType("Automatic");
+        available.setDailyPrice(1000.0);
+        available.setCategory("Mid-size");
+        available.setLocation(testLocation);
+
+        Car maintenance = new Car();
+        maintenance.setBarcode("SRCH002");
+        maintenance.setLicensePlate("34SRCH2");
+        maintenance.setBrand("Honda");
+        maintenance.setModel("Civic");
+        maintenance.setNumberOfSeats(5);
+        maintenance.setTransmissionType("Automatic");
+        maintenance.setDailyPrice(900.0);
+        maintenance.setCategory("Mid-size");
+        maintenance.setStatus("MAINTENANCE");
+        maintenance.setLocation(testLocation);
+
+        carRepository.saveAll(List.of(available, maintenance));
+
+        CarSearchRequestDTO request = new CarSearchRequestDTO();
+        request.setPickupLocationCode("IST");
+        request.setCategory("Mid-size");
+        request.setPickupDate(LocalDateTime.now().plusDays(1));
+        request.setDropoffDate(LocalDateTime.now().plusDays(3));
+
+        List<CarResponseDTO> result = carService.searchAvailableCars(request);
+
+        assertThat(result).hasSize(1);
+        assertThat(result.get(0).getBarcode()).isEqualTo("SRCH001");
+        assertThat(result.get(0).getDailyPrice()).isEqualTo(1000.0);
+        assertThat(result.get(0).getLocationName()).isEqualTo("Istanbul Airport");
+
+        // projection: the location name comes from the same row, no Car or Location is loaded
+        OperationCost.measureWarm(entityManager, () -> carService.searchAvailableCars(request))
+                .statementsAtMost(1)
+                .entityLoadsAtMost(0)
+                .allocatedAtMost(100_000);
+    }
+
+    @Test
+    void getAllRentedCars_ReturnsCurrentRentals_InOneStatement() {
+        Member member = new Member();
+        member.setName("Rented Member");
+        member.setEmail("rented@example.com");
+        member.setDrivingLicenseNumber("DLRENT01");
+        memberRepository.save(member);
+
+        for (int i = 0; i < 3; i++) {
+            Car car = new Car();
+            car.setBarcode("RENT00" + i);
+            car.setLicensePlate("34RENT" + i);
+            car.setBrand("Toyota");
+            car.setModel("Corolla");
+            car.setNumberOfSeats(5);
+            car.setTransmissionType("Automatic");
+            car.setDailyPrice(1000.0);
+            car.setCategory("Mid-size");
+            car.setStatus("RESERVED");
+            car.setLocation(testLocation);
+            carRepository.save(car);
+
+            Reservation reservation = new Reservation();
+            reservation.setReservationNumber("RENTED0" + i);
+            reservation.setPickupDate(LocalDateTime.now().minusDays(1));
+            reservation.setDropoffDate(LocalDateTime.now().plusDays(2));
+            reservation.setStatus(ReservationStatus.ACTIVE);
+            reservation.setCar(car);
+            reservation.setMember(member);
+            reservation.setPickupLocation(testLocation);
+            reservation.setDropoffLocation(testLocation);
+            reservationRepository.save(reservation);
+        }
+
+        List<RentedCarDTO> rented = carService.getAllRentedCars();
+
+        assertThat(rented).extracting(RentedCarDTO::getBarcode)
+                .containsExactlyInAnyOrder("RENT000", "RENT001", "RENT002");
+        assertThat(rented).allSatisfy(dto -> {
+            assertThat(dto.getMemberName()).isEqualTo("Rented Member");
+            assertThat(dto.getDropoffLocation()).isEqualTo("Istanbul Airport");
+            assertThat(dto.getReservationDayCount()).isEqualTo(3);
+        });
+
+        // was one query for the rentals plus one per car, member and drop-off location
+        OperationCost.measureWarm(entityManager, carService::getAllRentedCars)
+                .statementsAtMost(1)
+                .collectionFetchesAtMost(0)
+                .allocatedAtMost(100_000);
+    }
+
+    // Runs outside the test transaction: cache entries are written when a transaction commits
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    void getCarById_ServedFromSecondLevelCache_AndSeesUpdates() {
+        Car car = new Car();
+        car.setBarcode("CACHE001");
+        car.setLicensePlate("34CACHE");
+        car.setBrand("Toyota");
+        car.setModel("Corolla");
+        car.setNumberOfSeats(5);
+        car.setTransmissionType("Automatic");
+        car.setDailyPrice(1000.0);
+        car.setLocation(testLocation);
+        carRepository.save(car);
+
+        try {
+            Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+            carService.getCarById(car.getId());
+            long hits = statistics.getDomainDataRegionStatistics("cars").getHitCount();
+
+            carService.getCarById(car.getId());
+
+            assertThat(statistics.getDomainDataRegionStatistics("cars").getHitCount()).isEqualTo(hits + 1);
+
+            carService.updateCarStatus(car.getId(), "MAINTENANCE");
+
+            assertThat(carService.getCarById(car.getId()).getStatus()).isEqualTo("MAINTENANCE");
+            assertThat(carService.getCarByBarcode("CACHE001").getStatus()).isEqualTo("MAINTENANCE");
+        } finally {
+            carRepository.deleteById(car.getId());
+            locationRepository.delete(testLocation);
+        }
+    }
+
+    @Test
+    void sharedFinders_ReturnManagedCars_InReadWriteTransaction() {
+        Car car = new Car();
+        car.setBarcode("MANAGED1");
+        car.setLicensePlate("34MNG01");
+        car.setBrand("Fiat");
+        car.setModel("Egea");
+        car.setNumberOfSeats(5);
+        car.setTransmissionType("Manual");
+        car.setDailyPrice(700.0);
+        car.setLocation(testLocation);
+        carRepository.save(car);
+        entityManager.flush();
+        entityManager.clear();
+
+        // a change made after a list read must still be flushed
+        carRepository.findByLocationCode("IST").get(0).setDailyPrice(750.0);
+        entityManager.flush();
+        entityManager.clear();
+
+        assertThat(carRepository.findByBarcode("MANAGED1")).get()
+                .extracting(Car::getDailyPrice).isEqualTo(750.0);
+    }
+}
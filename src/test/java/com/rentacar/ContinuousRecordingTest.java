@@ -0,0 +1,58 @@
+package com.rentacar;
+
+import com.rentacar.config.ContinuousRecording;
+import com.rentacar.config.FlightRecorderProperties;
+import com.rentacar.service.BookingEvents;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+
+class ContinuousRecordingTest {
+
+    private ContinuousRecording recording;
+    private Path dump;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        recording = new ContinuousRecording(new FlightRecorderProperties());
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        recording.destroy();
+        if (dump != null) {
+            Files.deleteIfExists(dump);
+        }
+    }
+
+    @Test
+    void dump_ContainsBookingEventsCommittedJustBefore() throws Exception {
+        BookingEvents.Search search = new BookingEvents.Search();
+        search.begin();
+        search.commit();
+
+        dump = recording.dump(Duration.ofMinutes(1));
+
+        List<RecordedEvent> events = RecordingFile.readAllEvents(dump);
+        assertThat(events).extracting(event -> event.getEventType().getName())
+                .contains(BookingEvents.SEARCH);
+    }
+
+    @Test
+    void dump_LeavesOutEnvironmentAndSystemProperties() throws Exception {
+        dump = recording.dump(Duration.ofMinutes(1));
+
+        List<RecordedEvent> events = RecordingFile.readAllEvents(dump);
+        assertThat(events).extracting(event -> event.getEventType().getName())
+                .doesNotContain("jdk.InitialEnvironmentVariable", "jdk.InitialSystemProperty");
+    }
+}
@@ -0,0 +1,35 @@
+package com.rentacar;
+
+import com.rentacar.model.Extra;
+import com.rentacar.service.ExtraCatalog;
+import com.rentacar.service.ExtraInventory;
+import com.rentacar.service.ExtraService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import static org.assertj.core.api.Assertions.*;
+
+@DataJpaTest
+@Import({ExtraService.class, ExtraInventory.class, ExtraCatalog.class})
+@TestPropertySource(properties = "rentacar.extras.storage=bitmask")
+class ExtraCatalogTest {
+
+    @Autowired
+    private ExtraService extraService;
+
+    // Runs outside the test transaction: claimed bits are handed back when a transaction commits
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    void createExtra_ReusesBitsOfDeletedExtras() {
+        for (int i = 0; i < ExtraCatalog.MAX_EXTRAS + 6; i++) {
+            Extra extra = extraService.createExtra(new Extra("Short-lived " + i, 10.0));
+            assertThat(extra.getBitPosition()).isNotNull();
+            assertThat(extraService.deleteExtra(extra.getId())).isTrue();
+        }
+    }
+}
@@ -1,19 +1,26 @@
 package com.rentacar;
 
 import com.rentacar.model.Extra;
+import com.rentacar.model.ExtraStock;
+import com.rentacar.model.Location;
 import com.rentacar.repository.ExtraRepository;
+import com.rentacar.repository.ExtraStockRepository;
+import com.rentacar.repository.LocationRepository;
+import com.rentacar.service.ExtraCatalog;
+import com.rentacar.service.ExtraInventory;
 import com.rentacar.service.ExtraService;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.context.annotation.Import;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 import static org.assertj.core.api.Assertions.*;
 
 @DataJpaTest
-@Import(ExtraService.class)
+@Import({ExtraService.class, ExtraInventory.class, ExtraCatalog.class})
 class ExtraServiceTest {
 
     @Autowired
@@ -22,6 +29,15 @@ class ExtraServiceTest {
     @Autowired
     private ExtraRepository extraRepository;
 
+    @Autowired
+    private ExtraStockRepository extraStockRepository;
+
+    @Autowired
+    private LocationRepository locationRepository;
+
+    @Autowired
+    private ExtraInventory extraInventory;
+
     @Test
     void getExtraById_ReturnsCorrectExtra() {
         Extra gps = new Extra("GPS Navigation", 200.0);
@@ -71,6 +87,8 @@ class ExtraServiceTest {
         assertThat(saved.getName()).isEqualTo("WiFi Hotspot");
         assertThat(saved.getPrice()).isEqualTo(100.0);
         assertThat(extraRepository.findByName("WiFi Hotspot")).isPresent();
+        // join-table storage (default) has no use for a mask bit
+        assertThat(saved.getBitPosition()).isNull();
     }
 
     @Test
@@ -107,4 +125,35 @@ class ExtraServiceTest {
         assertThat(result).isTrue();
         assertThat(extraRepository.findById(saved.getId())).isEmpty();
     }
-}
\ No newline at end of file
+
+    @Test
+    void setStock_CreatesThenUpdatesStockRow() {
+        Extra saved = extraRepository.save(new Extra("Baby Seat", 150.0));
+        Location location = locationRepository.save(new Location("STK", "Stock Location"));
+
+        extraService.setStock(saved.getId(), "STK", 3);
+        ExtraStock updated = extraService.setStock(saved.getId(), "STK", 5);
+
+        assertThat(updated.getQuantity()).isEqualTo(5);
+        assertThat(extraStockRepository.findAll()).hasSize(1);
+        assertThat(extraStockRepository.findByExtraIdAndLocationId(saved.getId(), location.getId()))
+                .isPresent();
+    }
+
+    @Test
+    void inventoryRebuild_KeepsDaysHeldByUncommittedBooking() {
+        Extra gps = extraRepository.save(new Extra("GPS Navigation", 200.0));
+        Location location = locationRepository.save(new Location("INF", "In-flight Location"));
+        extraStockRepository.save(new ExtraStock(gps, location, 1));
+        extraInventory.rebuild();
+
+        // held by this still-open transaction; there is no reservation row for a rebuild to find
+        LocalDateTime pickup = LocalDateTime.now().plusDays(1);
+        assertThat(extraInventory.reserve(List.of(gps), location, pickup, pickup.plusDays(2))).isTrue();
+
+        extraInventory.rebuild();
+
+        assertThat(extraInventory.getAvailable(gps.getId(), location.getId(), pickup.toLocalDate())).isZero();
+        assertThat(extraInventory.reserve(List.of(gps), location, pickup, pickup.plusDays(2))).isFalse();
+    }
+}
@@ -0,0 +1,264 @@
+package com.rentacar;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.rentacar.model.Car;
+import com.rentacar.model.Location;
+import com.rentacar.model.Member;
+import com.rentacar.repository.CarRepository;
+import com.rentacar.repository.LocationRepository;
+import com.rentacar.repository.MemberRepository;
+import com.rentacar.service.OccupancyCounters;
+import com.rentacar.service.ReservationService;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+
+import java.io.ByteArrayInputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.zip.GZIPInputStream;
+
+import static org.assertj.core.api.Assertions.*;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "spring.datasource.url=jdbc:h2:mem:fleet-http-caching;DB_CLOSE_DELAY=-1",
+        // one tag per day, so no test straddles a rented-list rollover
+        "rentacar.http.rented-etag-window=1d"
+})
+class FleetHttpCachingTest {
+
+    private static final int FLEET_SIZE = 40;
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private CarRepository carRepository;
+
+    @Autowired
+    private LocationRepository locationRepository;
+
+    @Autowired
+    private MemberRepository memberRepository;
+
+    @Autowired
+    private ReservationService reservationService;
+
+    @Autowired
+    private OccupancyCounters occupancyCounters;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private final HttpClient client = HttpClient.newHttpClient();
+
+    private final LocalDateTime pickup = LocalDateTime.now().plusDays(30).withNano(0);
+    private final LocalDateTime dropoff = pickup.plusDays(3);
+
+    @BeforeEach
+    void setUp() {
+        if (locationRepository.findByCode("ETAG").isPresent()) {
+            return;
+        }
+        Location location = locationRepository.save(new Location("ETAG", "Conditional GET Depot"));
+
+        List<Car> fleet = new ArrayList<>();
+        for (int i = 0; i < FLEET_SIZE; i++) {
+            fleet.add(car("ETAG" + i, location));
+        }
+        carRepository.saveAll(fleet);
+
+        Member member = new Member();
+        member.setName("Etag Tester");
+        member.setAddress("Istanbul, Turkey");
+        member.setEmail("etag@example.com");
+        member.setPhone("+905550000000");
+        member.setDrivingLicenseNumber("E0000001");
+        member = memberRepository.save(member);
+
+        // two cars on rental right now
+        for (int i = 0; i < 2; i++) {
+            reservationService.makeReservation(fleet.get(i).getId(), member.getId(), "ETAG", "ETAG",
+                    LocalDateTime.now().minusDays(1), LocalDateTime.now().plusDays(2), List.of());
+        }
+    }
+
+    @Test
+    void rented_WithCurrentEtag_Returns304WithoutQueries() throws Exception {
+        long requests = requestsTo("/api/cars/rented");
+        HttpResponse<byte[]> first = get("/api/cars/rented");
+        String etag = first.headers().firstValue("ETag").orElseThrow();
+        assertThat(first.statusCode()).isEqualTo(200);
+
+        DistributionSummary statements = awaitRequests("/api/cars/rented", requests + 1);
+        double statementsSoFar = statements.totalAmount();
+        assertThat(statementsSoFar).isPositive();
+
+        HttpResponse<byte[]> revalidated = get("/api/cars/rented", "If-None-Match", etag);
+
+        assertThat(revalidated.statusCode()).isEqualTo(304);
+        assertThat(revalidated.body()).isEmpty();
+        awaitRequests("/api/cars/rented", requests + 2);
+        assertThat(statements.totalAmount()).isEqualTo(statementsSoFar);
+    }
+
+    @Test
+    void search_AfterFleetChange_ReturnsNewEtag() throws Exception {
+        String query = searchQuery();
+        HttpResponse<byte[]> first = get(query);
+        String etag = first.headers().firstValue("ETag").orElseThrow();
+
+        assertThat(get(query, "If-None-Match", etag).statusCode()).isEqualTo(304);
+
+        Car car = carRepository.findByBarcode("ETAG" + (FLEET_SIZE - 1)).orElseThrow();
+        car.setDailyPrice(car.getDailyPrice() + 1);
+        carRepository.save(car);
+
+        HttpResponse<byte[]> changed = get(query, "If-None-Match", etag);
+        assertThat(changed.statusCode()).isEqualTo(200);
+        assertThat(changed.headers().firstValue("ETag")).isPresent().get().isNotEqualTo(etag);
+    }
+
+    @Test
+    void search_AfterOccupancyRebuild_ReturnsNewEtag() throws Exception {
+        String query = searchQuery();
+        String etag = get(query).headers().firstValue("ETag").orElseThrow();
+
+        // dynamic prices follow the rebuilt counters
+        occupancyCounters.rebuild();
+
+        assertThat(get(query, "If-None-Match", etag).statusCode()).isEqualTo(200);
+    }
+
+    @Test
+    void search_LargeList_IsGzippedOnTheWire() throws Exception {
+        String query = searchQuery();
+        HttpResponse<byte[]> plain = get(query);
+        HttpResponse<byte[]> gzipped = get(query, "Accept-Encoding", "gzip");
+
+        assertThat(plain.headers().firstValue("Content-Encoding")).isEmpty();
+        assertThat(gzipped.headers().firstValue("Content-Encoding")).hasValue("gzip");
+        assertThat(plain.body().length).isGreaterThan(2048);
+        // repetitive JSON: well under a quarter of the bytes
+        assertThat(gzipped.body().length).isLessThan(plain.body().length / 4);
+        assertThat(new GZIPInputStream(new ByteArrayInputStream(gzipped.body())).readAllBytes())
+                .isEqualTo(plain.body());
+    }
+
+    @Test
+    void search_SmallList_IsNotCompressed() throws Exception {
+        HttpResponse<byte[]> single = get(searchQuery() + "&minDailyPrice=1020&maxDailyPrice=1020",
+                "Accept-Encoding", "gzip");
+
+        assertThat(single.statusCode()).isEqualTo(200);
+        assertThat(single.body().length).isLessThan(2048);
+        assertThat(single.headers().firstValue("Content-Encoding")).isEmpty();
+    }
+
+    @Test
+    void search_AcceptCbor_ReturnsSameDocumentInFewerBytes() throws Exception {
+        String query = searchQuery();
+        HttpResponse<byte[]> json = get(query);
+        HttpResponse<byte[]> cbor = get(query, "Accept", "application/cbor");
+
+        assertThat(cbor.statusCode()).isEqualTo(200);
+        assertThat(cbor.headers().firstValue("Content-Type")).hasValue("application/cbor");
+        assertThat(cbor.body().length).isLessThan(json.body().length);
+        assertThat(new ObjectMapper(new CBORFactory()).readTree(cbor.body()))
+                .isEqualTo(new ObjectMapper().readTree(json.body()));
+    }
+
+    @Test
+    void search_JsonAndCbor_CarryDifferentEtagsAndVaryOnAccept() throws Exception {
+        String query = searchQuery();
+        HttpResponse<byte[]> json = get(query);
+        HttpResponse<byte[]> cbor = get(query, "Accept", "application/cbor");
+        String jsonEtag = json.headers().firstValue("ETag").orElseThrow();
+        String cborEtag = cbor.headers().firstValue("ETag").orElseThrow();
+
+        assertThat(cborEtag).isNotEqualTo(jsonEtag);
+        assertThat(varyHeaders(json)).contains("accept");
+        assertThat(varyHeaders(cbor)).contains("accept");
+
+        // a JSON tag does not revalidate a CBOR request
+        assertThat(get(query, "Accept", "application/cbor", "If-None-Match", jsonEtag).statusCode())
+                .isEqualTo(200);
+        HttpResponse<byte[]> revalidated = get(query, "Accept", "application/cbor", "If-None-Match", cborEtag);
+        assertThat(revalidated.statusCode()).isEqualTo(304);
+        assertThat(revalidated.headers().allValues("ETag")).containsExactly(cborEtag);
+        assertThat(varyHeaders(revalidated)).contains("accept");
+    }
+
+    @Test
+    void rented_JsonAndCbor_CarryDifferentEtags() throws Exception {
+        HttpResponse<byte[]> json = get("/api/cars/rented");
+        HttpResponse<byte[]> cbor = get("/api/cars/rented", "Accept", "application/cbor");
+
+        assertThat(cbor.headers().firstValue("Content-Type")).hasValue("application/cbor");
+        assertThat(cbor.headers().firstValue("ETag")).isPresent().get()
+                .isNotEqualTo(json.headers().firstValue("ETag").orElseThrow());
+        assertThat(varyHeaders(cbor)).contains("accept");
+    }
+
+    private String searchQuery() {
+        return "/api/cars/search?pickupLocationCode=ETAG&pickupDate=" + pickup + "&dropoffDate=" + dropoff;
+    }
+
+    // headers as name/value pairs
+    private HttpResponse<byte[]> get(String path, String... headers) throws Exception {
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + path));
+        if (headers.length > 0) {
+            request.headers(headers);
+        }
+        return client.send(request.build(), HttpResponse.BodyHandlers.ofByteArray());
+    }
+
+    // Vary values, lower-cased, one per header name
+    private static List<String> varyHeaders(HttpResponse<?> response) {
+        return response.headers().allValues("Vary").stream()
+                .flatMap(vary -> Arrays.stream(vary.split(",")))
+                .map(name -> name.trim().toLowerCase(Locale.ROOT))
+                .toList();
+    }
+
+    private long requestsTo(String uri) {
+        DistributionSummary statements = meterRegistry.find("rentacar.request.jdbc.statements")
+                .tag("uri", uri).summary();
+        return statements == null ? 0 : statements.count();
+    }
+
+    // QueryStatisticsFilter records after the response has gone out
+    private DistributionSummary awaitRequests(String uri, long count) throws InterruptedException {
+        for (int i = 0; i < 100 && requestsTo(uri) < count; i++) {
+            Thread.sleep(10);
+        }
+        assertThat(requestsTo(uri)).isEqualTo(count);
+        return meterRegistry.get("rentacar.request.jdbc.statements").tag("uri", uri).summary();
+    }
+
+    private static Car car(String barcode, Location location) {
+        Car car = new Car();
+        car.setBarcode(barcode);
+        car.setLicensePlate(barcode);
+        car.setBrand("Toyota");
+        car.setModel("Corolla");
+        car.setNumberOfSeats(5);
+        car.setTransmissionType("Automatic");
+        car.setDailyPrice(1000.0 + Integer.parseInt(barcode.substring(4)));
+        car.setCategory("Compact");
+        car.setLocation(location);
+        return car;
+    }
+}
@@ -0,0 +1,142 @@
+package com.rentacar;
+
+import com.rentacar.dto.RebalancingPlanDTO;
+import com.rentacar.dto.RebalancingTransferDTO;
+import com.rentacar.model.*;
+import com.rentacar.repository.*;
+import com.rentacar.service.FleetRebalancingService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.*;
+
+@DataJpaTest
+@Import(FleetRebalancingService.class)
+class FleetRebalancingServiceTest {
+
+    @Autowired
+    private FleetRebalancingService fleetRebalancingService;
+
+    @Autowired
+    private CarRepository carRepository;
+
+    @Autowired
+    private LocationRepository locationRepository;
+
+    @Autowired
+    private MemberRepository memberRepository;
+
+    @Autowired
+    private ReservationRepository reservationRepository;
+
+    private Location ist;
+    private Location saw;
+    private Member member;
+
+    @BeforeEach
+    void setUp() {
+        ist = locationRepository.save(new Location("IST", "Istanbul Airport"));
+        saw = locationRepository.save(new Location("SAW", "Sabiha Gokcen Airport"));
+
+        member = new Member();
+        member.setName("Planner Member");
+        member.setEmail("planner@example.com");
+        member.setDrivingLicenseNumber("DL424242");
+        memberRepository.save(member);
+    }
+
+    @Test
+    void planTransfers_MovesSurplusToLargestDeficitFirst() {
+        List<RebalancingTransferDTO> transfers = FleetRebalancingService.planTransfers("Compact",
+                Map.of("IST", 5L, "SAW", -3L, "KAD", -1L, "ESB", 0L));
+
+        assertThat(transfers).hasSize(2);
+        assertThat(transfers.get(0).getToLocationCode()).isEqualTo("SAW");
+        assertThat(transfers.get(0).getCarCount()).isEqualTo(3);
+        assertThat(transfers.get(1).getToLocationCode()).isEqualTo("KAD");
+        assertThat(transfers.get(1).getCarCount()).isEqualTo(1);
+        assertThat(transfers).allMatch(t -> t.getFromLocationCode().equals("IST"));
+    }
+
+    @Test
+    void planRebalancing_CoversForecastPickupsAtOtherLocation() {
+        Car first = carRepository.save(newCar("REB001", ist));
+        carRepository.save(newCar("REB002", ist));
+
+        // Both IST cars are at IST, but the only upcoming pickup is at SAW
+        Reservation reservation = new Reservation();
+        reservation.setReservationNumber("REB00001");
+        reservation.setPickupDate(LocalDateTime.now().plusDays(2));
+        reservation.setDropoffDate(LocalDateTime.now().plusDays(4));
+        reservation.setStatus(ReservationStatus.ACTIVE);
+        reservation.setMember(member);
+        reservation.setCar(first);
+        reservation.setPickupLocation(saw);
+        reservation.setDropoffLocation(saw);
+        reservationRepository.save(reservation);
+
+        RebalancingPlanDTO plan = fleetRebalancingService.planRebalancing(3);
+
+        assertThat(plan.getTransfers()).hasSize(1);
+        RebalancingTransferDTO transfer = plan.getTransfers().get(0);
+        assertThat(transfer.getCategory()).isEqualTo("Compact");
+        assertThat(transfer.getFromLocationCode()).isEqualTo("IST");
+        assertThat(transfer.getToLocationCode()).isEqualTo("SAW");
+        assertThat(transfer.getCarCount()).isEqualTo(1);
+        assertThat(plan.getUnmetDemand()).isZero();
+    }
+
+    @Test
+    void planRebalancing_CoversShortfallBeforeLaterDropoff() {
+        Car car = carRepository.save(newCar("REB003", saw));
+
+        // IST has no car for a pickup on day 2; the dropoff on day 4 only restores it afterwards
+        Reservation reservation = new Reservation();
+        reservation.setReservationNumber("REB00002");
+        reservation.setPickupDate(LocalDateTime.now().plusDays(2));
+        reservation.setDropoffDate(LocalDateTime.now().plusDays(4));
+        reservation.setStatus(ReservationStatus.ACTIVE);
+        reservation.setMember(member);
+        reservation.setCar(car);
+        reservation.setPickupLocation(ist);
+        reservation.setDropoffLocation(ist);
+        reservationRepository.save(reservation);
+
+        RebalancingPlanDTO plan = fleetRebalancingService.planRebalancing(7);
+
+        assertThat(plan.getTransfers()).singleElement().satisfies(transfer -> {
+            assertThat(transfer.getFromLocationCode()).isEqualTo("SAW");
+            assertThat(transfer.getToLocationCode()).isEqualTo("IST");
+            assertThat(transfer.getCarCount()).isEqualTo(1);
+        });
+    }
+
+    @Test
+    void planRebalancing_RejectsHorizonOutOfRange() {
+        assertThatThrownBy(() -> fleetRebalancingService.planRebalancing(0))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> fleetRebalancingService.planRebalancing(FleetRebalancingService.MAX_HORIZON_DAYS + 1))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private Car newCar(String barcode, Location location) {
+        Car car = new Car();
+        car.setBarcode(barcode);
+        car.setLicensePlate(barcode);
+        car.setBrand("Renault");
+        car.setModel("Clio");
+        car.setNumberOfSeats(5);
+        car.setTransmissionType("Manual");
+        car.setDailyPrice(800.0);
+        car.setCategory("Compact");
+        car.setLocation(location);
+        return car;
+    }
+}
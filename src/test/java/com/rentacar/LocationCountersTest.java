@@ -0,0 +1,90 @@
+package com.rentacar;
+
+import com.rentacar.model.Location;
+import com.rentacar.service.LocationCounters;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.*;
+
+class LocationCountersTest {
+
+    // No transaction is active, so every mutation is applied immediately
+    private final LocationCounters counters = new LocationCounters(null, null);
+
+    private static final LocalDateTime PICKUP = LocalDateTime.now().plusDays(3);
+    private static final LocalDateTime DROPOFF = PICKUP.plusDays(2);
+
+    @Test
+    void carMutations_MoveCountsBetweenStatusesAndLocations() {
+        Location ist = location(1L);
+        Location saw = location(2L);
+
+        counters.carAdded(ist, "AVAILABLE");
+        counters.carAdded(ist, "AVAILABLE");
+        counters.carChanged(ist, "AVAILABLE", ist, "RESERVED");
+
+        assertThat(counters.getCarsByStatus(1L))
+                .containsEntry("AVAILABLE", 1L)
+                .containsEntry("RESERVED", 1L);
+
+        counters.carChanged(ist, "RESERVED", saw, "AVAILABLE");
+
+        assertThat(counters.getCarCount(1L)).isEqualTo(1);
+        assertThat(counters.getCarCount(2L)).isEqualTo(1);
+        assertThat(counters.getCarsByStatus(1L)).doesNotContainKey("RESERVED");
+
+        counters.carRemoved(saw, "AVAILABLE");
+
+        assertThat(counters.getCarCount(2L)).isZero();
+    }
+
+    @Test
+    void reservationMutations_TrackUpcomingAndReferences() {
+        Location ist = location(1L);
+        Location saw = location(2L);
+
+        counters.reservationCreated(ist, saw, PICKUP, DROPOFF);
+
+        assertThat(counters.getUpcomingPickups(1L)).isEqualTo(1);
+        assertThat(counters.getUpcomingDropoffs(2L)).isEqualTo(1);
+        assertThat(counters.isInUse(1L)).isTrue();
+        assertThat(counters.isInUse(2L)).isTrue();
+
+        counters.reservationClosed(ist, saw, PICKUP, DROPOFF);
+
+        assertThat(counters.getUpcomingPickups(1L)).isZero();
+        assertThat(counters.getUpcomingDropoffs(2L)).isZero();
+        assertThat(counters.isInUse(1L)).isTrue();
+
+        counters.reservationDeleted(ist, saw);
+
+        assertThat(counters.isInUse(1L)).isFalse();
+        assertThat(counters.isInUse(2L)).isFalse();
+    }
+
+    @Test
+    void reservationMutations_PastDatesAreNotUpcoming() {
+        Location ist = location(1L);
+        Location saw = location(2L);
+        LocalDateTime pickedUp = LocalDateTime.now().minusDays(1);
+
+        counters.reservationCreated(ist, saw, pickedUp, DROPOFF);
+
+        assertThat(counters.getUpcomingPickups(1L)).isZero();
+        assertThat(counters.getUpcomingDropoffs(2L)).isEqualTo(1);
+        assertThat(counters.isInUse(1L)).isTrue();
+
+        counters.reservationClosed(ist, saw, pickedUp, DROPOFF);
+
+        assertThat(counters.getUpcomingPickups(1L)).isZero();
+        assertThat(counters.getUpcomingDropoffs(2L)).isZero();
+    }
+
+    private Location location(Long id) {
+        Location location = new Location("L" + id, "Location " + id);
+        location.setId(id);
+        return location;
+    }
+}
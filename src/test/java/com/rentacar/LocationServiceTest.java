@@ -1,19 +1,25 @@
 package com.rentacar;
 
+import com.rentacar.dto.LocationOccupancyDTO;
+import com.rentacar.model.Car;
 import com.rentacar.model.Location;
+import com.rentacar.repository.CarRepository;
 import com.rentacar.repository.LocationRepository;
+import com.rentacar.service.LocationCounters;
 import com.rentacar.service.LocationService;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
 import org.springframework.context.annotation.Import;
+import org.springframework.dao.DataIntegrityViolationException;
 
 import java.util.List;
 
 import static org.assertj.core.api.Assertions.*;
 
 @DataJpaTest
-@Import(LocationService.class)
+@Import({LocationService.class, LocationCounters.class})
 class LocationServiceTest {
 
     @Autowired
@@ -22,6 +28,15 @@ class LocationServiceTest {
     @Autowired
     private LocationRepository locationRepository;
 
+    @Autowired
+    private CarRepository carRepository;
+
+    @Autowired
+    private LocationCounters locationCounters;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
     @Test
     void getLocationByCode_ReturnsCorrectLocation() {
         Location location = new Location("ANK", "Ankara Esenboğa Airport");
@@ -100,4 +115,61 @@ class LocationServiceTest {
         assertThat(result).isTrue();
         assertThat(locationRepository.findByCode("DEL")).isEmpty();
     }
-}
\ No newline at end of file
+
+    @Test
+    void deleteLocation_ReturnsFalse_WhenCarAtLocation() {
+        Location saved = locationRepository.save(new Location("CARS", "Location with Cars"));
+        carRepository.save(newCar("LOCCAR1", saved));
+        locationRepository.flush();
+        locationCounters.reconcile();
+
+        boolean result = locationService.deleteLocation(saved.getId());
+
+        assertThat(result).isFalse();
+        assertThat(locationRepository.findByCode("CARS")).isPresent();
+    }
+
+    @Test
+    void deleteLocation_CarTheCountersMissed_IsStoppedByForeignKey() {
+        Location saved = locationRepository.save(new Location("FK", "Location with uncounted Car"));
+        carRepository.save(newCar("LOCCAR2", saved));
+        entityManager.flush();
+        entityManager.clear();
+
+        assertThatThrownBy(() -> {
+            locationService.deleteLocation(saved.getId());
+            locationRepository.flush();
+        }).isInstanceOf(DataIntegrityViolationException.class);
+    }
+
+    @Test
+    void getLocationOccupancy_ReturnsReconciledCounts() {
+        Location saved = locationRepository.save(new Location("OCC", "Occupancy Location"));
+        carRepository.save(newCar("OCCCAR1", saved));
+        Car reserved = newCar("OCCCAR2", saved);
+        reserved.setStatus("RESERVED");
+        carRepository.save(reserved);
+
+        locationCounters.reconcile();
+        LocationOccupancyDTO occupancy = locationService.getLocationOccupancy("OCC");
+
+        assertThat(occupancy.getTotalCars()).isEqualTo(2);
+        assertThat(occupancy.getCarsByStatus())
+                .containsEntry("AVAILABLE", 1L)
+                .containsEntry("RESERVED", 1L);
+        assertThat(occupancy.getUpcomingPickups()).isZero();
+    }
+
+    private Car newCar(String barcode, Location location) {
+        Car car = new Car();
+        car.setBarcode(barcode);
+        car.setLicensePlate(barcode);
+        car.setBrand("Renault");
+        car.setModel("Clio");
+        car.setNumberOfSeats(5);
+        car.setTransmissionType("Manual");
+        car.setDailyPrice(800.0);
+        car.setLocation(location);
+        return car;
+    }
+}
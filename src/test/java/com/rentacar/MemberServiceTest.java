@@ -1,13 +1,17 @@
 package com.rentacar;
 
-import com.rentacar.model.Member;
+import com.rentacar.model.*;
+import com.rentacar.repository.CarRepository;
+import com.rentacar.repository.LocationRepository;
 import com.rentacar.repository.MemberRepository;
+import com.rentacar.repository.ReservationRepository;
 import com.rentacar.service.MemberService;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.context.annotation.Import;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 import static org.assertj.core.api.Assertions.*;
@@ -22,6 +26,15 @@ class MemberServiceTest {
     @Autowired
     private MemberRepository memberRepository;
 
+    @Autowired
+    private ReservationRepository reservationRepository;
+
+    @Autowired
+    private CarRepository carRepository;
+
+    @Autowired
+    private LocationRepository locationRepository;
+
     @Test
     void createMember_SavesAndReturnsMember() {
         Member member = new Member();
@@ -171,4 +184,42 @@ class MemberServiceTest {
         assertThat(result).isTrue();
         assertThat(memberRepository.findById(saved.getId())).isEmpty();
     }
-}
\ No newline at end of file
+
+    @Test
+    void deleteMember_ReturnsFalse_WhenActiveReservationExists() {
+        Member member = new Member();
+        member.setName("Active Renter");
+        member.setEmail("active@example.com");
+        member.setDrivingLicenseNumber("DL777777");
+        Member saved = memberRepository.save(member);
+
+        Location location = locationRepository.save(new Location("MEM", "Member Test Location"));
+
+        Car car = new Car();
+        car.setBarcode("MEMCAR1");
+        car.setLicensePlate("34MEM01");
+        car.setBrand("Fiat");
+        car.setModel("Egea");
+        car.setNumberOfSeats(5);
+        car.setTransmissionType("Manual");
+        car.setDailyPrice(700.0);
+        car.setLocation(location);
+        carRepository.save(car);
+
+        Reservation reservation = new Reservation();
+        reservation.setReservationNumber("MEMRES01");
+        reservation.setPickupDate(LocalDateTime.now().plusDays(1));
+        reservation.setDropoffDate(LocalDateTime.now().plusDays(3));
+        reservation.setStatus(ReservationStatus.ACTIVE);
+        reservation.setMember(saved);
+        reservation.setCar(car);
+        reservation.setPickupLocation(location);
+        reservation.setDropoffLocation(location);
+        reservationRepository.save(reservation);
+
+        boolean result = memberService.deleteMember(saved.getId());
+
+        assertThat(result).isFalse();
+        assertThat(memberRepository.findById(saved.getId())).isPresent();
+    }
+}
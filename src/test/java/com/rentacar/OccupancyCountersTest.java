@@ -0,0 +1,96 @@
+package com.rentacar;
+
+import com.rentacar.model.Location;
+import com.rentacar.service.DynamicPricing;
+import com.rentacar.service.FleetVersion;
+import com.rentacar.service.OccupancyCounters;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.*;
+
+class OccupancyCountersTest {
+
+    private static final LocalDateTime START = LocalDate.now().plusDays(1).atTime(10, 0);
+    private static final String[] CATEGORIES = {"Economy", "SUV", null};
+
+    @Test
+    void incrementalUpdates_MatchFullRebuildAfterReplay() {
+        // No transaction is active, so every mutation is applied immediately
+        OccupancyCounters incremental = counters();
+        incremental.load(List.of(), List.of(), Long.MIN_VALUE);
+
+        Random random = new Random(42);
+        List<Object[]> active = new ArrayList<>();
+
+        for (int i = 0; i < 2_000; i++) {
+            if (!active.isEmpty() && random.nextInt(3) == 0) {
+                Object[] booking = active.remove(random.nextInt(active.size()));
+                incremental.reservationReleased(location((Long) booking[0]), (String) booking[1],
+                        (LocalDateTime) booking[2], (LocalDateTime) booking[3]);
+            } else {
+                long locationId = 1 + random.nextInt(3);
+                String category = CATEGORIES[random.nextInt(CATEGORIES.length)];
+                LocalDateTime pickup = START.plusDays(random.nextInt(20)).plusHours(random.nextInt(12));
+                LocalDateTime dropoff = pickup.plusDays(1 + random.nextInt(6)).plusMinutes(random.nextInt(600));
+                incremental.reservationCreated(location(locationId), category, pickup, dropoff);
+                active.add(new Object[]{locationId, category, pickup, dropoff});
+            }
+        }
+
+        OccupancyCounters rebuilt = counters();
+        rebuilt.load(List.of(), active, Long.MIN_VALUE);
+
+        long firstDay = START.toLocalDate().toEpochDay();
+        for (long locationId = 1; locationId <= 3; locationId++) {
+            for (String category : CATEGORIES) {
+                for (long day = firstDay; day < firstDay + 30; day++) {
+                    assertThat(incremental.getBooked(locationId, category, day))
+                            .as("location %d, category %s, day %d", locationId, category, day)
+                            .isEqualTo(rebuilt.getBooked(locationId, category, day));
+                }
+            }
+        }
+    }
+
+    @Test
+    void dynamicPricing_FollowsUtilizationCurve() {
+        OccupancyCounters counters = counters();
+        counters.load(List.<Object[]>of(new Object[]{1L, "SUV", 4L}), List.of(), Long.MIN_VALUE);
+        DynamicPricing pricing = new DynamicPricing(true, Map.of(50, 11000, 75, 12500), counters);
+        long day = START.toLocalDate().toEpochDay();
+
+        assertThat(pricing.adjustDailyMinor(10_000, 1L, "SUV", day)).isEqualTo(10_000);
+
+        counters.reservationCreated(location(1L), "SUV", START, START.plusDays(1));
+        counters.reservationCreated(location(1L), "SUV", START, START.plusDays(1));
+        assertThat(counters.utilizationPercent(1L, "SUV", day)).isEqualTo(50);
+        assertThat(pricing.adjustDailyMinor(10_000, 1L, "SUV", day)).isEqualTo(11_000);
+
+        counters.reservationCreated(location(1L), "SUV", START, START.plusDays(1));
+        assertThat(pricing.adjustDailyMinor(10_000, 1L, "SUV", day)).isEqualTo(12_500);
+
+        // No fleet of that category at the location: base price
+        assertThat(pricing.adjustDailyMinor(10_000, 1L, "Economy", day)).isEqualTo(10_000);
+        assertThat(new DynamicPricing(false, Map.of(50, 11000), counters)
+                .adjustDailyMinor(10_000, 1L, "SUV", day)).isEqualTo(10_000);
+    }
+
+    // no FleetVersion to invalidate
+    private static OccupancyCounters counters() {
+        return new OccupancyCounters(null, null, new StaticListableBeanFactory().getBeanProvider(FleetVersion.class));
+    }
+
+    private static Location location(Long id) {
+        Location location = new Location();
+        location.setId(id);
+        return location;
+    }
+}
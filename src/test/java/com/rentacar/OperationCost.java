@@ -0,0 +1,66 @@
+package com.rentacar;
+
+import com.rentacar.config.QueryStatistics;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+
+import java.lang.management.ManagementFactory;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Cost of one service call on the test thread: JDBC statements, entity loads and collection
+ * fetches (QueryStatistics, so the test context must import ObservabilityConfig) and bytes
+ * allocated (ThreadMXBean). Budgets are ceilings a little above today's numbers, so an N+1 or
+ * a path that starts loading entities again fails the test that covers it.
+ * <p>
+ * Test classes that budget allocations run with the quiet test profile and showSql off: under
+ * the dev profile every statement is logged with its bind values on the measured thread, which
+ * made the logging, not the call, most of the bytes.
+ */
+record OperationCost(long statements, long entityLoads, long collectionFetches, long allocatedBytes) {
+
+    private static final com.sun.management.ThreadMXBean THREADS =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    // Setup writes are flushed and the persistence context cleared first, so lazy loads go to the
+    // database as in a fresh request; the call's own writes are flushed inside the measurement.
+    static OperationCost measure(TestEntityManager entityManager, Runnable operation) {
+        entityManager.flush();
+        entityManager.clear();
+
+        QueryStatistics.reset();
+        long allocatedBefore = THREADS.getCurrentThreadAllocatedBytes();
+        operation.run();
+        entityManager.flush();
+        long allocated = THREADS.getCurrentThreadAllocatedBytes() - allocatedBefore;
+
+        QueryStatistics.Snapshot counts = QueryStatistics.snapshot();
+        return new OperationCost(counts.statements(), counts.entityLoads(), counts.collectionFetches(), allocated);
+    }
+
+    // For reads: one untimed call first, so query plan compilation and class loading are not counted
+    static OperationCost measureWarm(TestEntityManager entityManager, Runnable operation) {
+        operation.run();
+        return measure(entityManager, operation);
+    }
+
+    OperationCost statementsAtMost(long budget) {
+        assertThat(statements).as("JDBC statements (%s)", this).isLessThanOrEqualTo(budget);
+        return this;
+    }
+
+    OperationCost entityLoadsAtMost(long budget) {
+        assertThat(entityLoads).as("entity loads (%s)", this).isLessThanOrEqualTo(budget);
+        return this;
+    }
+
+    OperationCost collectionFetchesAtMost(long budget) {
+        assertThat(collectionFetches).as("collection fetches (%s)", this).isLessThanOrEqualTo(budget);
+        return this;
+    }
+
+    OperationCost allocatedAtMost(long budgetBytes) {
+        assertThat(allocatedBytes).as("bytes allocated (%s)", this).isLessThanOrEqualTo(budgetBytes);
+        return this;
+    }
+}
@@ -0,0 +1,92 @@
+package com.rentacar;
+
+import com.rentacar.service.Money;
+import com.rentacar.service.PricingEngine;
+import com.rentacar.service.PricingRules;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.*;
+
+class PricingEngineTest {
+
+    // 2025-01-06 is a Monday
+    private static final LocalDateTime MONDAY = LocalDateTime.of(2025, 1, 6, 10, 0);
+
+    @Test
+    void flatRules_MatchLegacyFormula() {
+        PricingEngine engine = new PricingEngine(PricingRules.flat());
+
+        long total = engine.priceMinor(Money.toMinor(1200.0), "Mid-size",
+                MONDAY, MONDAY.plusDays(5), Money.toMinor(200.0));
+
+        assertThat(Money.toMajor(total)).isEqualTo(6200.0);
+    }
+
+    @Test
+    void minorUnits_StayExactWhereDoubleDrifts() {
+        PricingEngine engine = new PricingEngine(PricingRules.flat());
+        long dailyMinor = Money.toMinor(19.99);
+        long extraMinor = Money.toMinor(0.10);
+
+        long totalMinor = 0;
+        double totalDouble = 0;
+        for (int i = 0; i < 10_000; i++) {
+            totalMinor += engine.priceMinor(dailyMinor, null, MONDAY, MONDAY.plusDays(3), extraMinor);
+            totalDouble += 3 * 19.99 + 0.10;
+        }
+
+        assertThat(totalMinor).isEqualTo(10_000L * 6007);
+        assertThat(Money.toMajor(totalMinor)).isEqualTo(600_700.0);
+        assertThat(totalDouble).isNotEqualTo(600_700.0);
+    }
+
+    @Test
+    void weekendMultiplier_AppliesOnlyToSaturdayAndSunday() {
+        PricingEngine engine = new PricingEngine(PricingRules.compile(15000, Map.of(), Map.of()));
+
+        // Friday, Saturday, Sunday
+        long total = engine.priceMinor(10_000, null, MONDAY.plusDays(4), MONDAY.plusDays(7), 0);
+
+        assertThat(total).isEqualTo(10_000 + 2 * 15_000);
+    }
+
+    @Test
+    void weekendDays_CountedAcrossFullWeeks() {
+        PricingEngine engine = new PricingEngine(PricingRules.compile(20000, Map.of(), Map.of()));
+
+        long total = engine.priceMinor(1_000, null, MONDAY, MONDAY.plusDays(15), 0);
+
+        // 15 days from Monday: 4 weekend days and 11 weekdays
+        assertThat(total).isEqualTo(11 * 1_000 + 4 * 2_000);
+    }
+
+    @Test
+    void lengthTierAndCategory_AreAppliedWithHalfUpRounding() {
+        PricingEngine engine = new PricingEngine(PricingRules.compile(10000,
+                Map.of(3, 9500, 7, 9000),
+                Map.of("Luxury", 12500)));
+
+        // 7 days at 33.33: 233.31 -> x0.90 = 209.979 -> 209.98 -> x1.25 = 262.475 -> 262.48
+        long total = engine.priceMinor(3_333, "Luxury", MONDAY, MONDAY.plusDays(7), 0);
+        assertThat(total).isEqualTo(26_248);
+
+        // Below every tier and unknown category: unchanged
+        assertThat(engine.priceMinor(3_333, "Compact", MONDAY, MONDAY.plusDays(2), 0)).isEqualTo(6_666);
+    }
+
+    @Test
+    void rentalDays_MatchesDurationToDays() {
+        LocalDateTime pickup = MONDAY.withNano(500);
+        assertThat(PricingEngine.rentalDays(pickup, pickup.plusDays(5).withNano(499))).isEqualTo(4);
+        assertThat(PricingEngine.rentalDays(pickup, pickup.plusDays(5))).isEqualTo(5);
+    }
+
+    @Test
+    void compile_RejectsNonPositiveMultiplier() {
+        assertThatThrownBy(() -> PricingRules.compile(0, Map.of(), Map.of()))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
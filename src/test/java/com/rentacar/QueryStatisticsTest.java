@@ -0,0 +1,62 @@
+package com.rentacar;
+
+import com.rentacar.config.ObservabilityConfig;
+import com.rentacar.config.QueryStatistics;
+import com.rentacar.model.Car;
+import com.rentacar.model.Location;
+import com.rentacar.repository.CarRepository;
+import com.rentacar.repository.LocationRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+
+@DataJpaTest
+@Import({ObservabilityConfig.class, SimpleMeterRegistry.class})
+class QueryStatisticsTest {
+
+    @Autowired
+    private CarRepository carRepository;
+
+    @Autowired
+    private LocationRepository locationRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Test
+    void countsStatementsEntityLoadsAndCollectionFetchesOnCurrentThread() {
+        Location location = locationRepository.save(new Location("IST", "Istanbul Airport"));
+        carRepository.saveAll(List.of(car("QS001", location), car("QS002", location)));
+        entityManager.flush();
+        entityManager.clear();
+
+        QueryStatistics.reset();
+        List<Car> cars = carRepository.findAll();
+        cars.get(0).getReservations().size();
+
+        QueryStatistics.Snapshot counts = QueryStatistics.snapshot();
+        assertThat(counts.statements()).isEqualTo(2);
+        assertThat(counts.entityLoads()).isEqualTo(2);
+        assertThat(counts.collectionFetches()).isEqualTo(1);
+    }
+
+    private static Car car(String barcode, Location location) {
+        Car car = new Car();
+        car.setBarcode(barcode);
+        car.setLicensePlate(barcode);
+        car.setBrand("Toyota");
+        car.setModel("Corolla");
+        car.setNumberOfSeats(5);
+        car.setTransmissionType("Automatic");
+        car.setDailyPrice(1000.0);
+        car.setLocation(location);
+        return car;
+    }
+}
@@ -0,0 +1,152 @@
+package com.rentacar;
+
+import com.rentacar.config.PricingConfig;
+import com.rentacar.dto.DateRangeDTO;
+import com.rentacar.dto.QuoteRequestDTO;
+import com.rentacar.dto.QuoteResponseDTO;
+import com.rentacar.model.Car;
+import com.rentacar.model.Extra;
+import com.rentacar.model.Location;
+import com.rentacar.repository.CarRepository;
+import com.rentacar.repository.ExtraRepository;
+import com.rentacar.repository.LocationRepository;
+import com.rentacar.service.OccupancyCounters;
+import com.rentacar.service.QuoteService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+import static org.assertj.core.api.Assertions.*;
+
+@DataJpaTest
+@Import({QuoteService.class, OccupancyCounters.class, PricingConfig.class})
+class QuoteServiceTest {
+
+    @Autowired
+    private QuoteService quoteService;
+
+    @Autowired
+    private CarRepository carRepository;
+
+    @Autowired
+    private LocationRepository locationRepository;
+
+    @Autowired
+    private ExtraRepository extraRepository;
+
+    private final LocalDateTime start = LocalDateTime.of(2025, 3, 3, 10, 0);
+
+    @BeforeEach
+    void setUp() {
+        Location location = locationRepository.save(new Location("QTE", "Quote Location"));
+        carRepository.save(newCar("QCAR1", 1000.0, location));
+        carRepository.save(newCar("QCAR2", 1500.5, location));
+        extraRepository.save(new Extra("GPS Navigation", 200.0));
+    }
+
+    @Test
+    void quote_ReturnsMatrixOfCarsByDateRanges() {
+        QuoteRequestDTO request = new QuoteRequestDTO();
+        request.setCarBarcodes(List.of("QCAR1", "QCAR2"));
+        request.setDateRanges(List.of(
+                new DateRangeDTO(start, start.plusDays(1)),
+                new DateRangeDTO(start, start.plusDays(3))));
+        request.setExtraCodes(List.of("GPS Navigation"));
+
+        QuoteResponseDTO response = quoteService.quote(request);
+
+        assertThat(response.getCarBarcodes()).containsExactly("QCAR1", "QCAR2");
+        assertThat(response.getTotalAmounts()[0]).containsExactly(1200.0, 3200.0);
+        assertThat(response.getTotalAmounts()[1]).containsExactly(1700.5, 4701.5);
+        assertThat(response.getNotFoundBarcodes()).isEmpty();
+    }
+
+    @Test
+    void quote_ReportsUnknownBarcodesSeparately() {
+        QuoteRequestDTO request = new QuoteRequestDTO();
+        request.setCarBarcodes(List.of("QCAR1", "NOPE"));
+        request.setDateRanges(List.of(new DateRangeDTO(start, start.plusDays(2))));
+
+        QuoteResponseDTO response = quoteService.quote(request);
+
+        assertThat(response.getCarBarcodes()).containsExactly("QCAR1");
+        assertThat(response.getTotalAmounts()[0]).containsExactly(2000.0);
+        assertThat(response.getNotFoundBarcodes()).containsExactly("NOPE");
+    }
+
+    @Test
+    void quote_ThrowsException_WhenExtraNotFound() {
+        QuoteRequestDTO request = new QuoteRequestDTO();
+        request.setCarBarcodes(List.of("QCAR1"));
+        request.setDateRanges(List.of(new DateRangeDTO(start, start.plusDays(2))));
+        request.setExtraCodes(List.of("Jetpack"));
+
+        assertThatThrownBy(() -> quoteService.quote(request))
+                .isInstanceOf(NoSuchElementException.class)
+                .hasMessageContaining("Extra not found");
+    }
+
+    @Test
+    void quote_RejectsExtraListedTwice() {
+        QuoteRequestDTO request = new QuoteRequestDTO();
+        request.setCarBarcodes(List.of("QCAR1"));
+        request.setDateRanges(List.of(new DateRangeDTO(start, start.plusDays(2))));
+        request.setExtraCodes(List.of("GPS Navigation", "GPS Navigation"));
+
+        assertThatThrownBy(() -> quoteService.quote(request))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void quote_RejectsRangeThatDoesNotMoveForward() {
+        QuoteRequestDTO reversed = new QuoteRequestDTO();
+        reversed.setCarBarcodes(List.of("QCAR1"));
+        reversed.setDateRanges(List.of(new DateRangeDTO(start.plusDays(2), start)));
+        QuoteRequestDTO empty = new QuoteRequestDTO();
+        empty.setCarBarcodes(List.of("QCAR1"));
+        empty.setDateRanges(List.of(new DateRangeDTO(start, start)));
+
+        assertThatThrownBy(() -> quoteService.quote(reversed)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> quoteService.quote(empty)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void quote_RejectsMatrixOverTheCellLimit() {
+        List<DateRangeDTO> ranges = new ArrayList<>();
+        for (int j = 0; j < 101; j++) {
+            ranges.add(new DateRangeDTO(start.plusDays(j), start.plusDays(j + 2)));
+        }
+        List<String> barcodes = new ArrayList<>();
+        for (int i = 0; i < QuoteService.MAX_CELLS / 100; i++) {
+            barcodes.add("Q" + i);
+        }
+        QuoteRequestDTO request = new QuoteRequestDTO();
+        request.setCarBarcodes(barcodes);
+        request.setDateRanges(ranges);
+
+        assertThatThrownBy(() -> quoteService.quote(request))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("cars x date ranges");
+    }
+
+    private Car newCar(String barcode, Double dailyPrice, Location location) {
+        Car car = new Car();
+        car.setBarcode(barcode);
+        car.setLicensePlate(barcode);
+        car.setBrand("Renault");
+        car.setModel("Clio");
+        car.setNumberOfSeats(5);
+        car.setTransmissionType("Manual");
+        car.setDailyPrice(dailyPrice);
+        car.setCategory("Compact");
+        car.setLocation(location);
+        return car;
+    }
+}
@@ -0,0 +1,144 @@
+package com.rentacar;
+
+import com.rentacar.config.ReadWriteRoutingDataSource;
+import com.rentacar.config.ReplicaPinFilter;
+import jakarta.servlet.http.Cookie;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.*;
+
+class ReadWriteRoutingDataSourceTest {
+
+    private final EmbeddedDatabase primary = database("primary");
+    private final EmbeddedDatabase replica = database("replica");
+
+    @AfterEach
+    void tearDown() {
+        primary.shutdown();
+        replica.shutdown();
+    }
+
+    @Test
+    void readOnlyTransactions_GoToReplica_WritesToPrimary() {
+        DataSource routing = routing(Duration.ZERO);
+
+        assertThat(serverName(routing, true)).isEqualTo("replica");
+        assertThat(serverName(routing, false)).isEqualTo("primary");
+        assertThat(serverName(routing, true)).isEqualTo("replica");
+    }
+
+    @Test
+    void readsStayOnPrimary_ForTheWritingClientOnly() {
+        DataSource routing = routing(Duration.ofMinutes(1));
+        long[] cookie = {0L};
+        ReadWriteRoutingDataSource.ClientPin writer = new ReadWriteRoutingDataSource.ClientPin(0L, until -> cookie[0] = until);
+        ReadWriteRoutingDataSource.ClientPin other = new ReadWriteRoutingDataSource.ClientPin(0L, until -> { });
+
+        assertThat(serverName(routing, true, writer)).isEqualTo("replica");
+        assertThat(serverName(routing, false, writer)).isEqualTo("primary");
+
+        assertThat(serverName(routing, true, writer)).isEqualTo("primary");
+        assertThat(serverName(routing, true, other)).isEqualTo("replica");
+        assertThat(serverName(routing, true, null)).isEqualTo("replica");
+        assertThat(cookie[0]).isGreaterThan(System.currentTimeMillis());
+
+        // the next request of the same client brings the deadline back
+        assertThat(serverName(routing, true, new ReadWriteRoutingDataSource.ClientPin(cookie[0], until -> { })))
+                .isEqualTo("primary");
+    }
+
+    @Test
+    void rolledBackWrite_DoesNotPinClient() {
+        DataSource routing = routing(Duration.ofMinutes(1));
+        ReadWriteRoutingDataSource.ClientPin client = new ReadWriteRoutingDataSource.ClientPin(0L, until -> { });
+
+        ReadWriteRoutingDataSource.bindClient(client);
+        try {
+            TransactionTemplate transaction = new TransactionTemplate(new DataSourceTransactionManager(routing));
+            transaction.executeWithoutResult(status -> {
+                new JdbcTemplate(routing).update("UPDATE server SET name = name");
+                status.setRollbackOnly();
+            });
+        } finally {
+            ReadWriteRoutingDataSource.unbindClient();
+        }
+
+        assertThat(serverName(routing, true, client)).isEqualTo("replica");
+    }
+
+    @Test
+    void pinCookie_OnlyTheSignedOneKeepsReadsOnPrimary() throws Exception {
+        DataSource routing = routing(Duration.ofMinutes(1));
+        ReplicaPinFilter filter = new ReplicaPinFilter("test-key".getBytes(StandardCharsets.UTF_8));
+        MockHttpServletResponse written = new MockHttpServletResponse();
+        filter.doFilter(new MockHttpServletRequest(), written, (req, res) -> serverName(routing, false));
+        Cookie issued = written.getCookie("rentacar-primary-until");
+        assertThat(issued).isNotNull();
+        String until = issued.getValue().substring(0, issued.getValue().indexOf('.'));
+        String signature = issued.getValue().substring(until.length());
+
+        assertThat(readThrough(filter, routing, issued.getValue())).isEqualTo("primary");
+        assertThat(readThrough(filter, routing, Long.toString(Long.MAX_VALUE))).isEqualTo("replica");
+        assertThat(readThrough(filter, routing, (Long.parseLong(until) + 1) + signature)).isEqualTo("replica");
+        assertThat(readThrough(new ReplicaPinFilter("other-key".getBytes(StandardCharsets.UTF_8)), routing,
+                issued.getValue())).isEqualTo("replica");
+    }
+
+    private DataSource routing(Duration maxLag) {
+        return new LazyConnectionDataSourceProxy(new ReadWriteRoutingDataSource(primary, replica, maxLag));
+    }
+
+    // a read-only request of a client sending the pin cookie with this value
+    private static String readThrough(ReplicaPinFilter filter, DataSource dataSource, String cookie) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.setCookies(new Cookie("rentacar-primary-until", cookie));
+        String[] route = new String[1];
+        filter.doFilter(request, new MockHttpServletResponse(), (req, res) -> route[0] = serverName(dataSource, true));
+        return route[0];
+    }
+
+    private static String serverName(DataSource dataSource, boolean readOnly) {
+        TransactionTemplate transaction = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+        transaction.setReadOnly(readOnly);
+        return transaction.execute(status ->
+                new JdbcTemplate(dataSource).queryForObject("SELECT name FROM server", String.class));
+    }
+
+    private static String serverName(DataSource dataSource, boolean readOnly,
+                                      ReadWriteRoutingDataSource.ClientPin client) {
+        if (client == null) {
+            return serverName(dataSource, readOnly);
+        }
+        ReadWriteRoutingDataSource.bindClient(client);
+        try {
+            return serverName(dataSource, readOnly);
+        } finally {
+            ReadWriteRoutingDataSource.unbindClient();
+        }
+    }
+
+    private static EmbeddedDatabase database(String name) {
+        EmbeddedDatabase database = new EmbeddedDatabaseBuilder()
+                .setType(EmbeddedDatabaseType.H2)
+                .generateUniqueName(true)
+                .build();
+        JdbcTemplate jdbc = new JdbcTemplate(database);
+        jdbc.execute("CREATE TABLE server (name VARCHAR(20))");
+        jdbc.update("INSERT INTO server VALUES (?)", name);
+        return database;
+    }
+}
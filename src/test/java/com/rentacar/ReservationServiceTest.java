@@ -1,21 +1,39 @@
 package com.rentacar;
 
+import com.rentacar.config.ObservabilityConfig;
+import com.rentacar.config.PricingConfig;
+import com.rentacar.dto.ReservationHistoryPageDTO;
+import com.rentacar.dto.ReservationResponseDTO;
 import com.rentacar.model.*;
 import com.rentacar.repository.*;
 import com.rentacar.service.*;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
 import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
 
 import java.time.LocalDateTime;
 import java.util.List;
 
 import static org.assertj.core.api.Assertions.*;
 
-@DataJpaTest
-@Import({ReservationService.class, CarService.class, MemberService.class, LocationService.class, ExtraService.class})
+@DataJpaTest(showSql = false)
+@ActiveProfiles("test")
+@Import({ReservationService.class, CarService.class, MemberService.class, LocationService.class, ExtraService.class,
+        LocationCounters.class, ExtraInventory.class, ExtraCatalog.class, OccupancyCounters.class,
+        PricingConfig.class, ObservabilityConfig.class, SimpleMeterRegistry.class})
+// dynamic pricing is neutral until a test loads the occupancy counters: without a fleet there is
+// no utilization; bitmask mode so the extras mask is filled
+@TestPropertySource(properties = {
+        "rentacar.pricing.dynamic.enabled=true",
+        "rentacar.pricing.dynamic.utilization-curve.50=15000",
+        "rentacar.extras.storage=bitmask"
+})
 class ReservationServiceTest {
 
     @Autowired
@@ -48,6 +66,21 @@ class ReservationServiceTest {
     @Autowired
     private ReservationRepository reservationRepository;
 
+    @Autowired
+    private ExtraStockRepository extraStockRepository;
+
+    @Autowired
+    private ExtraInventory extraInventory;
+
+    @Autowired
+    private ExtraCatalog extraCatalog;
+
+    @Autowired
+    private OccupancyCounters occupancyCounters;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
     private Location testLocation;
     private Car testCar;
     private Member testMember;
@@ -110,6 +143,21 @@ class ReservationServiceTest {
         assertThat(carRepository.findById(testCar.getId()).get().getStatus()).isEqualTo("RESERVED");
     }
 
+    @Test
+    void makeReservation_StaysWithinStatementAndAllocationBudget() {
+        LocalDateTime pickup = LocalDateTime.now().plusDays(1);
+        LocalDateTime dropoff = LocalDateTime.now().plusDays(5);
+
+        // not warmed, a second booking would need another car: about 1.1 MB, mostly first-call query
+        // plans and class loading, which shift with the tests that ran before this one
+        OperationCost.measure(entityManager, () -> reservationService.makeReservation(
+                        testCar.getId(), testMember.getId(), "TEST", "TEST",
+                        pickup, dropoff, List.of(testExtra.getId())))
+                .statementsAtMost(13)
+                .collectionFetchesAtMost(0)
+                .allocatedAtMost(2_000_000);
+    }
+
     @Test
     void makeReservation_ThrowsException_WhenCarNotAvailable() {
         // Make car unavailable
@@ -241,6 +289,14 @@ class ReservationServiceTest {
 
         // 5 days * 1200.0 (car daily price) + 200.0 (extra) = 6200.0
         assertThat(totalPrice).isEqualTo(6200.0);
+
+        // priced from the snapshot: car and extras stay unloaded
+        OperationCost.measureWarm(entityManager,
+                        () -> reservationService.calculateTotalPrice(reservation.getReservationNumber()))
+                .statementsAtMost(1)
+                .entityLoadsAtMost(1)
+                .collectionFetchesAtMost(0)
+                .allocatedAtMost(150_000);
     }
 
     @Test
@@ -277,4 +333,165 @@ class ReservationServiceTest {
         assertThat(cancelledReservations.get(0).getReservationNumber())
                 .isEqualTo(activeReservation.getReservationNumber());
     }
-}
\ No newline at end of file
+
+    @Test
+    void getMemberReservationHistory_PagesNewestFirst() {
+        LocalDateTime base = LocalDateTime.now().minusDays(30).withNano(0);
+
+        for (int i = 0; i < 5; i++) {
+            Reservation reservation = new Reservation();
+            reservation.setReservationNumber("HIST000" + i);
+            reservation.setCreationDate(base.plusDays(i));
+            reservation.setPickupDate(base.plusDays(i));
+            reservation.setDropoffDate(base.plusDays(i + 1));
+            reservation.setStatus(ReservationStatus.COMPLETED);
+            reservation.setCar(testCar);
+            reservation.setMember(testMember);
+            reservation.setPickupLocation(testLocation);
+            reservation.setDropoffLocation(testLocation);
+            reservationRepository.save(reservation);
+        }
+
+        ReservationHistoryPageDTO first = reservationService.getMemberReservationHistory(
+                testMember.getId(), null, null, 2);
+
+        assertThat(first.getReservations()).extracting(ReservationResponseDTO::getReservationNumber)
+                .containsExactly("HIST0004", "HIST0003");
+        assertThat(first.isHasMore()).isTrue();
+
+        ReservationHistoryPageDTO second = reservationService.getMemberReservationHistory(
+                testMember.getId(), first.getNextCreationDate(), first.getNextId(), 2);
+
+        assertThat(second.getReservations()).extracting(ReservationResponseDTO::getReservationNumber)
+                .containsExactly("HIST0002", "HIST0001");
+        assertThat(second.isHasMore()).isTrue();
+
+        ReservationHistoryPageDTO last = reservationService.getMemberReservationHistory(
+                testMember.getId(), second.getNextCreationDate(), second.getNextId(), 2);
+
+        assertThat(last.getReservations()).extracting(ReservationResponseDTO::getReservationNumber)
+                .containsExactly("HIST0000");
+        assertThat(last.isHasMore()).isFalse();
+        assertThat(last.getNextId()).isNull();
+
+        // rows without a price snapshot reprice from their extras, batch-loaded for the whole page
+        OperationCost.measureWarm(entityManager,
+                        () -> reservationService.getMemberReservationHistory(testMember.getId(), null, null, 5))
+                .statementsAtMost(2)
+                .collectionFetchesAtMost(1)
+                .allocatedAtMost(150_000);
+    }
+
+    @Test
+    void makeReservation_ThrowsException_WhenExtraOutOfStock() {
+        extraStockRepository.save(new ExtraStock(testExtra, testLocation, 1));
+        extraInventory.rebuild();
+
+        LocalDateTime pickup = LocalDateTime.now().plusDays(1);
+        LocalDateTime dropoff = LocalDateTime.now().plusDays(5);
+
+        reservationService.makeReservation(
+                testCar.getId(), testMember.getId(), "TEST", "TEST",
+                pickup, dropoff, List.of(testExtra.getId())
+        );
+
+        Car secondCar = new Car();
+        secondCar.setBarcode("TESTCAR2");
+        secondCar.setLicensePlate("34TEST2");
+        secondCar.setBrand("Toyota");
+        secondCar.setModel("Yaris");
+        secondCar.setNumberOfSeats(5);
+        secondCar.setTransmissionType("Automatic");
+        secondCar.setDailyPrice(900.0);
+        secondCar.setLocation(testLocation);
+        carRepository.save(secondCar);
+
+        assertThatThrownBy(() -> reservationService.makeReservation(
+                secondCar.getId(), testMember.getId(), "TEST", "TEST",
+                pickup.plusDays(2), dropoff.plusDays(2), List.of(testExtra.getId())
+        )).isInstanceOf(RuntimeException.class)
+                .hasMessageContaining("out of stock");
+
+        // A booking after the first one ends can take the unit again
+        Reservation later = reservationService.makeReservation(
+                secondCar.getId(), testMember.getId(), "TEST", "TEST",
+                dropoff.plusDays(1), dropoff.plusDays(3), List.of(testExtra.getId())
+        );
+        assertThat(later.getExtras()).hasSize(1);
+    }
+
+    @Test
+    void makeReservation_EncodesExtrasInMask() {
+        Extra babySeat = extraRepository.save(new Extra("Baby Seat", 150.0));
+
+        Reservation reservation = reservationService.makeReservation(
+                testCar.getId(), testMember.getId(), "TEST", "TEST",
+                LocalDateTime.now().plusDays(1), LocalDateTime.now().plusDays(2), List.of(testExtra.getId())
+        );
+        reservationService.addExtra(reservation.getReservationNumber(), "Baby Seat");
+
+        long expected = (1L << testExtra.getBitPosition()) | (1L << babySeat.getBitPosition());
+        Reservation updated = reservationService.getReservationByNumber(reservation.getReservationNumber());
+
+        assertThat(testExtra.getBitPosition()).isNotEqualTo(babySeat.getBitPosition());
+        assertThat(updated.getExtrasMask()).isEqualTo(expected);
+        assertThat(extraCatalog.priceOfMask(updated.getExtrasMask())).isEqualTo(350.0);
+        assertThat(extraCatalog.namesOfMask(updated.getExtrasMask()))
+                .containsExactlyInAnyOrder("GPS Navigation", "Baby Seat");
+    }
+
+    @Test
+    void calculateTotalPrice_UsesSnapshot_WhenPricesChangeAfterBooking() {
+        LocalDateTime pickup = LocalDateTime.of(2030, 1, 7, 10, 0); // Monday
+        Reservation reservation = reservationService.makeReservation(
+                testCar.getId(), testMember.getId(), "TEST", "TEST",
+                pickup, pickup.plusDays(5), List.of(testExtra.getId())
+        );
+
+        testCar.setDailyPrice(9999.0);
+        testExtra.setPrice(9999.0);
+        extraRepository.save(new Extra("Baby Seat", 150.0));
+        reservationService.addExtra(reservation.getReservationNumber(), "Baby Seat");
+
+        Reservation updated = reservationService.getReservationByNumber(reservation.getReservationNumber());
+
+        assertThat(reservationService.calculateTotalPrice(reservation.getReservationNumber())).isEqualTo(6350.0);
+        assertThat(updated.getCarPriceMinor()).isEqualTo(600_000L);
+        assertThat(updated.getExtrasPriceMinor()).isEqualTo(35_000L);
+        assertThat(updated.getPriceLines())
+                .extracting(PriceLine::getDescription, PriceLine::getAmountMinor)
+                .containsExactly(
+                        tuple("Car TESTCAR, 5 days", 600_000L),
+                        tuple("GPS Navigation", 20_000L),
+                        tuple("Baby Seat", 15_000L));
+    }
+
+    @Test
+    void makeReservation_ChargesTheDynamicDailyPrice() {
+        Car secondCar = new Car();
+        secondCar.setBarcode("TESTCAR2");
+        secondCar.setLicensePlate("34TEST2");
+        secondCar.setBrand("Toyota");
+        secondCar.setModel("Corolla");
+        secondCar.setNumberOfSeats(5);
+        secondCar.setTransmissionType("Automatic");
+        secondCar.setDailyPrice(1200.0);
+        secondCar.setCategory("Mid-size");
+        secondCar.setLocation(testLocation);
+        carRepository.save(secondCar);
+
+        LocalDateTime pickup = LocalDateTime.of(2030, 1, 7, 10, 0); // Monday
+        Reservation first = reservationService.makeReservation(
+                testCar.getId(), testMember.getId(), "TEST", "TEST",
+                pickup, pickup.plusDays(5), List.of());
+        occupancyCounters.rebuild();
+
+        // half of the location's Mid-size fleet is now booked: 1200.0 x 1.5 for 5 days, as search shows it
+        Reservation second = reservationService.makeReservation(
+                secondCar.getId(), testMember.getId(), "TEST", "TEST",
+                pickup, pickup.plusDays(5), List.of());
+
+        assertThat(first.getCarPriceMinor()).isEqualTo(600_000L);
+        assertThat(second.getCarPriceMinor()).isEqualTo(900_000L);
+    }
+}
@@ -0,0 +1,71 @@
+package com.rentacar;
+
+import com.rentacar.config.SyntheticDataset;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.*;
+
+class SyntheticDatasetTest {
+
+    private static final LocalDateTime ANCHOR = LocalDateTime.of(2026, 1, 1, 0, 0);
+
+    private static SyntheticDataset dataset(long seed) {
+        return new SyntheticDataset(seed, 5, 40, 300, 1_003, ANCHOR, 365, 60);
+    }
+
+    @Test
+    void sameSeed_GivesSameRows_DifferentSeedDoesNot() {
+        SyntheticDataset first = dataset(7);
+        SyntheticDataset second = dataset(7);
+
+        for (int i = 0; i < first.getCars(); i++) {
+            assertThat(second.car(i)).containsExactly(first.car(i));
+            assertThat(second.reservationsForCar(i))
+                    .usingElementComparator((a, b) -> Arrays.equals(a, b) ? 0 : 1)
+                    .containsExactlyElementsOf(first.reservationsForCar(i));
+        }
+        assertThat(second.member(123)).containsExactly(first.member(123));
+        assertThat(dataset(8).reservationsForCar(0).get(0)).isNotEqualTo(first.reservationsForCar(0).get(0));
+    }
+
+    @Test
+    void reservations_CoverRequestedCount_WithUniqueIds_AndNoDoubleBooking() {
+        SyntheticDataset dataset = dataset(42);
+        Set<Long> ids = new HashSet<>();
+        List<Object[]> all = new ArrayList<>();
+
+        for (int car = 0; car < dataset.getCars(); car++) {
+            LocalDateTime busyUntil = LocalDateTime.MIN;
+            for (Object[] row : dataset.reservationsForCar(car)) {
+                assertThat(ids.add((Long) row[0])).isTrue();
+                assertThat(row[8]).isEqualTo(dataset.car(car)[0]);
+                LocalDateTime pickup = (LocalDateTime) row[3];
+                LocalDateTime dropoff = (LocalDateTime) row[4];
+                assertThat((LocalDateTime) row[2]).isBefore(pickup);
+                assertThat(dropoff).isAfter(pickup);
+                if (!"CANCELLED".equals(row[6])) {
+                    assertThat(pickup).isAfterOrEqualTo(busyUntil);
+                    busyUntil = dropoff;
+                }
+                assertThat((Long) row[7]).isBetween(1L, (long) dataset.getMembers());
+                all.add(row);
+            }
+        }
+
+        assertThat(all).hasSize(1_003);
+        assertThat(ids).containsExactlyInAnyOrderElementsOf(
+                LongStream.rangeClosed(1, 1_003).boxed().toList());
+        // the timeline straddles the anchor: history, current rentals and future bookings
+        assertThat(all).anyMatch(row -> "COMPLETED".equals(row[6]));
+        assertThat(all).anyMatch(row -> "ACTIVE".equals(row[6]) && ((LocalDateTime) row[3]).isAfter(ANCHOR));
+        assertThat(all).anyMatch(row -> "CANCELLED".equals(row[6]));
+    }
+}